@@ -0,0 +1,75 @@
+package org.reflections.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.reflections.util.FilterBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/** filtering class file paths, by {@link FilterBuilder} compared to a chain of regular expressions */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterBenchmark {
+    @Param({"10000"})
+    public int classes;
+
+    private List<String> paths;
+    private FilterBuilder filter;
+    private Pattern[] includes;
+    private Pattern exclude;
+
+    @Setup
+    public void setup() {
+        paths = SyntheticClasspath.paths(classes);
+        filter = new FilterBuilder()
+            .includePackage(SyntheticClasspath.PACKAGE + ".p1")
+            .includePackage(SyntheticClasspath.PACKAGE + ".p3")
+            .includePackage(SyntheticClasspath.PACKAGE + ".p5")
+            .excludePattern(".*\\$.*");
+        includes = new Pattern[]{Pattern.compile("bench\\.p1\\..*"), Pattern.compile("bench\\.p3\\..*"), Pattern.compile("bench\\.p5\\..*")};
+        exclude = Pattern.compile(".*\\$.*");
+    }
+
+    /** see {@link FilterBuilder#testPath(String)} */
+    @Benchmark
+    public int testPath() {
+        int accepted = 0;
+        for (String path : paths) if (filter.testPath(path)) accepted++;
+        return accepted;
+    }
+
+    @Benchmark
+    public int testPathAndFqn() {
+        int accepted = 0;
+        for (String path : paths) if (filter.test(path) || filter.test(path.replace('/', '.'))) accepted++;
+        return accepted;
+    }
+
+    /** baseline - regular expressions chain on the fqn */
+    @Benchmark
+    public int regexChain() {
+        int accepted = 0;
+        for (String path : paths) {
+            String fqn = path.replace('/', '.');
+            boolean accept = false;
+            for (Pattern include : includes) if (include.matcher(fqn).matches()) { accept = true; break; }
+            if (accept && !exclude.matcher(fqn).matches()) accepted++;
+        }
+        return accepted;
+    }
+}
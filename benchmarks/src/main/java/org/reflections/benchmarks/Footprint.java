@@ -0,0 +1,156 @@
+package org.reflections.benchmarks;
+
+import org.reflections.Reflections;
+import org.reflections.Store;
+import org.reflections.util.ConfigurationBuilder;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * heap footprint regression check of {@link Store} and {@link Reflections} over synthetic classpaths.
+ * <p>scans each {@link SyntheticClasspath} shape and size, measures the retained heap size after forced gc using {@link MemoryMXBean},
+ * and fails if the retained bytes per scanned class or per store edge (key/value pair) exceeds its budget.
+ * <pre>{@code
+ * java -XX:+UseSerialGC -cp target/benchmarks.jar org.reflections.benchmarks.Footprint
+ * }</pre>
+ * <p>configured by system properties:
+ * <ul>
+ *     <li>{@code footprint.classes} - comma separated classpath sizes, default {@code 10000,100000}</li>
+ *     <li>{@code footprint.shapes} - comma separated shapes, default {@code wide,deep}</li>
+ *     <li>{@code footprint.bytesPerClass}, {@code footprint.bytesPerEdge} - budgets of the default store</li>
+ *     <li>{@code footprint.compact.bytesPerClass}, {@code footprint.compact.bytesPerEdge} - budgets of the compact store,
+ *     see {@link ConfigurationBuilder#setCompactStore(boolean)}</li>
+ * </ul>
+ * <p>budgets are the measured footprint with some headroom, and should be lowered when an improvement is merged
+ */
+public final class Footprint {
+    private static final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+    private Footprint() {}
+
+    public static void main(String[] args) throws IOException {
+        String[] classes = System.getProperty("footprint.classes", "10000,100000").split(",");
+        String[] shapes = System.getProperty("footprint.shapes", "wide,deep").split(",");
+
+        measure(shapes[0].trim(), 1000, false); // warm up class loading and jit, which would otherwise be measured
+
+        List<String> failures = new ArrayList<>();
+        System.out.printf("%-7s %-6s %-8s %8s %8s %12s %12s %10s %10s%n",
+            "store", "shape", "classes", "edges", "keys", "store", "reflections", "B/class", "B/edge");
+        for (String shape : shapes) {
+            for (String size : classes) {
+                for (boolean compact : new boolean[]{false, true}) {
+                    Result result = measure(shape.trim(), Integer.parseInt(size.trim()), compact);
+                    System.out.println(result);
+                    String budget = compact ? "footprint.compact." : "footprint.";
+                    check(result, "bytes per class", result.bytesPerClass(), budget + "bytesPerClass", compact ? 96 : 400, failures);
+                    check(result, "bytes per edge", result.bytesPerEdge(), budget + "bytesPerEdge", compact ? 64 : 240, failures);
+                }
+            }
+        }
+        if (!failures.isEmpty()) {
+            failures.forEach(System.err::println);
+            System.exit(1);
+        }
+    }
+
+    /** scans a synthetic classpath, and measures the retained size of the store, and of the whole {@link Reflections} instance */
+    static Result measure(String shape, int classes, boolean compact) throws IOException {
+        SyntheticClasspath classpath = SyntheticClasspath.create("dir", shape, classes, 100);
+        try {
+            ConfigurationBuilder configuration = new ConfigurationBuilder()
+                .addUrls(Collections.singleton(classpath.getUrl()))
+                .setCompactStore(compact);
+
+            long baseline = usedHeap();
+            Reflections reflections = new Reflections(configuration);
+            long reflectionsSize = usedHeap() - baseline;
+            long scanned = reflections.getScanMetrics().getClassesParsed();
+
+            Store store = reflections.getStore();
+            reflections = null; // only the store is reachable from here
+            long storeSize = usedHeap() - baseline;
+
+            long keys = 0, edges = 0;
+            for (Map<String, Set<String>> index : store.values()) {
+                keys += index.size();
+                for (Set<String> values : index.values()) edges += values.size();
+            }
+            Result result = new Result(shape, classes, compact, scanned, keys, edges, storeSize, reflectionsSize);
+            store.clear();
+            return result;
+        } finally {
+            classpath.delete();
+        }
+    }
+
+    private static void check(Result result, String name, double actual, String property, long defaultBudget, List<String> failures) {
+        long budget = Long.getLong(property, defaultBudget);
+        if (actual > budget) {
+            failures.add(String.format("footprint regression: %s %.1f exceeds budget %d (-D%s) for %s", name, actual, budget, property, result.describe()));
+        }
+    }
+
+    /** used heap after gc, repeated until it is stable, since a single {@link System#gc()} call is only a hint,
+     * and objects reachable from finalizers and cleaners are only collected by later cycles */
+    static long usedHeap() {
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 20; i++) {
+            System.gc();
+            System.runFinalization();
+            long current = memory.getHeapMemoryUsage().getUsed();
+            if (i >= 3 && Math.abs(used - current) < 1024) return current;
+            used = current;
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return used;
+    }
+
+    static final class Result {
+        final String shape;
+        final int classes;
+        final boolean compact;
+        final long scanned, keys, edges, storeSize, reflectionsSize;
+
+        Result(String shape, int classes, boolean compact, long scanned, long keys, long edges, long storeSize, long reflectionsSize) {
+            this.shape = shape;
+            this.classes = classes;
+            this.compact = compact;
+            this.scanned = scanned;
+            this.keys = keys;
+            this.edges = edges;
+            this.storeSize = storeSize;
+            this.reflectionsSize = reflectionsSize;
+        }
+
+        double bytesPerClass() {
+            return (double) Math.max(storeSize, reflectionsSize) / scanned;
+        }
+
+        double bytesPerEdge() {
+            return (double) storeSize / edges;
+        }
+
+        String describe() {
+            return (compact ? "compact" : "default") + " store, " + shape + " " + classes + " classes";
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-7s %-6s %-8d %8d %8d %12d %12d %10.1f %10.1f",
+                compact ? "compact" : "default", shape, classes, edges, keys, storeSize, reflectionsSize, bytesPerClass(), bytesPerEdge());
+        }
+    }
+}
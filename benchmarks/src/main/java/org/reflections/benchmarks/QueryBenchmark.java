@@ -0,0 +1,87 @@
+package org.reflections.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.reflections.Reflections;
+import org.reflections.util.ConfigurationBuilder;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.reflections.scanners.Scanners.SubTypes;
+import static org.reflections.scanners.Scanners.TypesAnnotated;
+
+/** querying a scanned synthetic classpath, with and without the sub types closure index, and resolving class names */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryBenchmark {
+    @Param({"10000", "100000"})
+    public int classes;
+
+    @Param({"wide", "deep"})
+    public String shape;
+
+    @Param({"false", "true"})
+    public boolean closure;
+
+    private Reflections reflections;
+    private final String[] names = {"java.lang.String", "java.util.HashMap", "java.util.concurrent.ConcurrentHashMap", "com.example.Missing"};
+
+    @Setup
+    public void setup() throws IOException {
+        SyntheticClasspath classpath = SyntheticClasspath.create("dir", shape, classes, 100);
+        try {
+            reflections = new Reflections(new ConfigurationBuilder()
+                .addUrls(Collections.singleton(classpath.getUrl()))
+                .setSubTypesClosure(closure));
+        } finally {
+            classpath.delete();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        reflections = null;
+    }
+
+    /** all transitive sub types of the root class, see {@link org.reflections.util.QueryBuilder#getAll(java.util.Collection)} */
+    @Benchmark
+    public Set<String> getAllSubTypes() {
+        return reflections.get(SubTypes.getAll(Collections.singleton(SyntheticClasspath.BASE)));
+    }
+
+    /** sub types of a class in the middle of the hierarchy */
+    @Benchmark
+    public Set<String> getAllSubTypesOfLeaf() {
+        return reflections.get(SubTypes.getAll(Collections.singleton(SyntheticClasspath.className(classes / 2))));
+    }
+
+    @Benchmark
+    public Set<String> getAnnotated() {
+        return reflections.get(TypesAnnotated.get(SyntheticClasspath.MARKER));
+    }
+
+    /** see {@link org.reflections.util.NameHelper#forClass(String, ClassLoader...)} */
+    @Benchmark
+    public int forClass() {
+        int resolved = 0;
+        for (String name : names) if (SubTypes.forClass(name) != null) resolved++;
+        return resolved;
+    }
+}
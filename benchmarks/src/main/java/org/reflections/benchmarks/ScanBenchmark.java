@@ -0,0 +1,88 @@
+package org.reflections.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.reflections.Reflections;
+import org.reflections.ScanPipeline;
+import org.reflections.util.ConfigurationBuilder;
+import org.reflections.util.FilterBuilder;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/** scanning a synthetic classpath into a store, with and without prefix filtering, and visiting without a store */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScanBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int classes;
+
+    @Param({"dir", "jar"})
+    public String layout;
+
+    @Param({"wide", "deep"})
+    public String shape;
+
+    @Param({"100"})
+    public int depth;
+
+    private SyntheticClasspath classpath;
+
+    @Setup
+    public void setup() throws IOException {
+        classpath = SyntheticClasspath.create(layout, shape, classes, depth);
+    }
+
+    @TearDown
+    public void tearDown() {
+        classpath.delete();
+    }
+
+    private ConfigurationBuilder configuration() {
+        return new ConfigurationBuilder().addUrls(Collections.singleton(classpath.getUrl()));
+    }
+
+    @Benchmark
+    public Reflections scan() {
+        return new Reflections(configuration());
+    }
+
+    /** scan a single package, see {@link FilterBuilder#getPackagePrefixes()} */
+    @Benchmark
+    public Reflections scanPackage() {
+        return new Reflections(configuration().filterInputsBy(new FilterBuilder().includePackage(SyntheticClasspath.PACKAGE + ".p0")));
+    }
+
+    /** staged scan, with readers and parsers overlapping, see {@link ScanPipeline} */
+    @Benchmark
+    public Reflections scanPipelined() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        return new Reflections(configuration().setScanPipeline(ScanPipeline.of(2 * cores, cores)));
+    }
+
+    @Benchmark
+    public long visit() {
+        LongAdder entries = new LongAdder();
+        Reflections.visit(configuration(), (index, key, value) -> {
+            entries.increment();
+            return true;
+        });
+        return entries.sum();
+    }
+}
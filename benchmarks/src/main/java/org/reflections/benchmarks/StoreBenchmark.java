@@ -0,0 +1,94 @@
+package org.reflections.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.reflections.CompactIndex;
+import org.reflections.IndexFile;
+import org.reflections.Reflections;
+import org.reflections.Store;
+import org.reflections.util.ConfigurationBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.reflections.scanners.Scanners.SubTypes;
+
+/** building and serializing stores of a scanned synthetic classpath */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StoreBenchmark {
+    @Param({"10000", "100000"})
+    public int classes;
+
+    @Param({"wide", "deep"})
+    public String shape;
+
+    private Map<String, Map<String, Set<String>>> storeMap;
+    private byte[] indexFile;
+
+    @Setup
+    public void setup() throws IOException {
+        SyntheticClasspath classpath = SyntheticClasspath.create("dir", shape, classes, 100);
+        Map<String, Map<String, Set<String>>> storeMap = new HashMap<>();
+        try {
+            Reflections.visit(new ConfigurationBuilder().addUrls(Collections.singleton(classpath.getUrl())), (index, key, value) -> {
+                synchronized (storeMap) {
+                    storeMap.computeIfAbsent(index, i -> new HashMap<>()).computeIfAbsent(key, k -> new HashSet<>()).add(value);
+                }
+                return true;
+            });
+        } finally {
+            classpath.delete();
+        }
+        this.storeMap = storeMap;
+        indexFile = write();
+    }
+
+    /** see {@link Store#compact(Map)} */
+    @Benchmark
+    public Store compact() {
+        return Store.compact(storeMap);
+    }
+
+    /** see {@link Store#closure(Map)} */
+    @Benchmark
+    public CompactIndex closure() {
+        return Store.closure(storeMap.get(SubTypes.index()));
+    }
+
+    @Benchmark
+    public byte[] write() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        IndexFile.write(new Store(storeMap), outputStream);
+        return outputStream.toByteArray();
+    }
+
+    /** read and decode all indices */
+    @Benchmark
+    public int read() throws IOException {
+        Store store = IndexFile.read(new ByteArrayInputStream(indexFile), "benchmark");
+        int keys = 0;
+        for (Map<String, Set<String>> index : store.values()) keys += index.size();
+        return keys;
+    }
+}
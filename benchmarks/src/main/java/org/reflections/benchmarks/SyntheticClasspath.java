@@ -0,0 +1,204 @@
+package org.reflections.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * synthetic classpath of generated class files, as a directory or a jar.
+ * <p>all classes are in sub packages of {@link #PACKAGE}, 1000 classes per package. every other class is annotated with {@link #MARKER}.
+ * <ul>
+ *     <li>{@code wide} - all classes extend {@link #BASE} and implement {@link #API}</li>
+ *     <li>{@code deep} - classes extend each other in chains of {@code depth} classes, starting from {@link #BASE}</li>
+ * </ul>
+ */
+public final class SyntheticClasspath {
+    public static final String PACKAGE = "bench";
+    public static final String BASE = PACKAGE + ".Base";
+    public static final String API = PACKAGE + ".Api";
+    public static final String MARKER = PACKAGE + ".Marker";
+
+    private static final int ACC_PUBLIC = 0x0001, ACC_SUPER = 0x0020, ACC_INTERFACE = 0x0200, ACC_ABSTRACT = 0x0400, ACC_ANNOTATION = 0x2000;
+
+    private final Path root;
+    private final URL url;
+
+    private SyntheticClasspath(Path root) throws IOException {
+        this.root = root;
+        this.url = root.toUri().toURL();
+    }
+
+    /**
+     * creates a synthetic classpath in a new temporary directory
+     * @param layout {@code dir} or {@code jar}
+     * @param shape {@code wide} or {@code deep}
+     */
+    public static SyntheticClasspath create(String layout, String shape, int classes, int depth) throws IOException {
+        Map<String, byte[]> classFiles = classFiles(shape, classes, depth);
+        Path dir = Files.createTempDirectory("reflections-benchmark");
+        switch (layout) {
+            case "dir":
+                for (Map.Entry<String, byte[]> entry : classFiles.entrySet()) {
+                    Path path = dir.resolve(entry.getKey());
+                    Files.createDirectories(path.getParent());
+                    Files.write(path, entry.getValue());
+                }
+                return new SyntheticClasspath(dir);
+            case "jar":
+                Path jar = dir.resolve("classes.jar");
+                try (OutputStream outputStream = Files.newOutputStream(jar);
+                     ZipOutputStream zip = new ZipOutputStream(outputStream)) {
+                    for (Map.Entry<String, byte[]> entry : classFiles.entrySet()) {
+                        zip.putNextEntry(new ZipEntry(entry.getKey()));
+                        zip.write(entry.getValue());
+                        zip.closeEntry();
+                    }
+                }
+                return new SyntheticClasspath(jar);
+            default:
+                throw new IllegalArgumentException("unknown layout " + layout);
+        }
+    }
+
+    public URL getUrl() {
+        return url;
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    /** fully qualified name of the {@code i}th generated class */
+    public static String className(int i) {
+        return PACKAGE + ".p" + (i / 1000) + ".C" + i;
+    }
+
+    /** relative paths of the generated class files */
+    public static List<String> paths(int classes) {
+        List<String> paths = new ArrayList<>(classes);
+        for (int i = 0; i < classes; i++) paths.add(path(className(i)));
+        return paths;
+    }
+
+    /** deletes the temporary directory of this classpath */
+    public void delete() {
+        Path dir = Files.isDirectory(root) ? root : root.getParent();
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Map<String, byte[]> classFiles(String shape, int classes, int depth) {
+        if (!shape.equals("wide") && !shape.equals("deep")) throw new IllegalArgumentException("unknown shape " + shape);
+        Map<String, byte[]> classFiles = new LinkedHashMap<>();
+        classFiles.put(path(MARKER), classFile(ACC_PUBLIC | ACC_INTERFACE | ACC_ABSTRACT | ACC_ANNOTATION, MARKER, "java.lang.Object", new String[]{"java.lang.annotation.Annotation"}, null));
+        classFiles.put(path(API), classFile(ACC_PUBLIC | ACC_INTERFACE | ACC_ABSTRACT, API, "java.lang.Object", new String[0], null));
+        classFiles.put(path(BASE), classFile(ACC_PUBLIC | ACC_SUPER, BASE, "java.lang.Object", new String[0], null));
+        for (int i = 0; i < classes; i++) {
+            boolean wide = shape.equals("wide");
+            String superclass = wide || i % depth == 0 ? BASE : className(i - 1);
+            String[] interfaces = wide ? new String[]{API} : new String[0];
+            classFiles.put(path(className(i)), classFile(ACC_PUBLIC | ACC_SUPER, className(i), superclass, interfaces, i % 2 == 0 ? MARKER : null));
+        }
+        return classFiles;
+    }
+
+    private static String path(String className) {
+        return className.replace('.', '/') + ".class";
+    }
+
+    /** minimal class file, without fields and methods, with an optional runtime visible class annotation */
+    private static byte[] classFile(int access, String name, String superclass, String[] interfaces, String annotation) {
+        ConstantPool cp = new ConstantPool();
+        int thisClass = cp.classInfo(name), superClass = cp.classInfo(superclass);
+        int[] interfaceIndices = new int[interfaces.length];
+        for (int i = 0; i < interfaces.length; i++) interfaceIndices[i] = cp.classInfo(interfaces[i]);
+        int annotationsName = annotation != null ? cp.utf8("RuntimeVisibleAnnotations") : 0;
+        int annotationType = annotation != null ? cp.utf8("L" + annotation.replace('.', '/') + ";") : 0;
+
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(52); // java 8
+            cp.write(out);
+            out.writeShort(access);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(interfaceIndices.length);
+            for (int index : interfaceIndices) out.writeShort(index);
+            out.writeShort(0); // fields
+            out.writeShort(0); // methods
+            if (annotation != null) {
+                out.writeShort(1);
+                out.writeShort(annotationsName);
+                out.writeInt(6);
+                out.writeShort(1); // num_annotations
+                out.writeShort(annotationType);
+                out.writeShort(0); // num_element_value_pairs
+            } else {
+                out.writeShort(0);
+            }
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** class file constant pool of Utf8 and Class entries */
+    private static final class ConstantPool {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private final Map<String, Integer> indices = new LinkedHashMap<>();
+        private int count = 1;
+
+        int utf8(String value) {
+            return indices.computeIfAbsent("utf8:" + value, k -> entry(1, value));
+        }
+
+        int classInfo(String name) {
+            int nameIndex = utf8(name.replace('.', '/'));
+            return indices.computeIfAbsent("class:" + name, k -> entry(7, nameIndex));
+        }
+
+        private int entry(int tag, Object value) {
+            try {
+                out.writeByte(tag);
+                if (value instanceof String) out.writeUTF((String) value);
+                else out.writeShort((Integer) value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return count++;
+        }
+
+        void write(DataOutputStream classFile) throws IOException {
+            classFile.writeShort(count);
+            out.flush();
+            bytes.writeTo(classFile);
+        }
+    }
+}
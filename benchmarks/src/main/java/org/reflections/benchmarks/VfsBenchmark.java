@@ -0,0 +1,76 @@
+package org.reflections.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.reflections.vfs.MappedZipDir;
+import org.reflections.vfs.SystemDir;
+import org.reflections.vfs.Vfs;
+import org.reflections.vfs.ZipDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarFile;
+
+/** reading all class files of a synthetic classpath, by each {@link Vfs.Dir} implementation */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VfsBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int classes;
+
+    @Param({"SystemDir", "ZipDir", "MappedZipDir"})
+    public String dir;
+
+    private SyntheticClasspath classpath;
+    private final byte[] buffer = new byte[8 * 1024];
+
+    @Setup
+    public void setup() throws IOException {
+        classpath = SyntheticClasspath.create(dir.equals("SystemDir") ? "dir" : "jar", "wide", classes, 1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        classpath.delete();
+    }
+
+    private Vfs.Dir open() throws IOException {
+        switch (dir) {
+            case "SystemDir": return new SystemDir(classpath.getRoot().toFile());
+            case "ZipDir": return new ZipDir(new JarFile(classpath.getRoot().toFile()));
+            case "MappedZipDir": return MappedZipDir.open(classpath.getRoot().toFile());
+            default: throw new IllegalArgumentException(dir);
+        }
+    }
+
+    @Benchmark
+    public long readAll() throws IOException {
+        Vfs.Dir vfsDir = open();
+        try {
+            long bytes = 0;
+            for (Vfs.File file : vfsDir.getFiles()) {
+                try (InputStream inputStream = file.openInputStream()) {
+                    for (int n; (n = inputStream.read(buffer)) != -1; ) bytes += n;
+                }
+            }
+            return bytes;
+        } finally {
+            vfsDir.close();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package org.reflections;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * immutable {@link Store} index, keeping key/values as sorted int ids in compressed sparse row arrays.
+ * <p>ids are positions in a sorted {@code names} array, shared by all indices of a store.
+ * values of key id {@code keys[row]} are {@code values[offsets[row]..offsets[row + 1]]}, in ascending id (and name) order.
+ * <p>see {@link Store#compact(Map)}
+ */
+public final class CompactIndex extends AbstractMap<String, Set<String>> {
+    final String[] names;
+    final int[] keys;
+    final int[] offsets;
+    final int[] values;
+
+    CompactIndex(String[] names, int[] keys, int[] offsets, int[] values) {
+        this.names = names;
+        this.keys = keys;
+        this.offsets = offsets;
+        this.values = values;
+    }
+
+    /** creates compact index of {@code index} key/values, where all names are contained in the sorted {@code names} */
+    static CompactIndex of(String[] names, Map<String, Set<String>> index) {
+        int[] keys = index.keySet().stream().mapToInt(key -> Arrays.binarySearch(names, key)).sorted().toArray();
+        int[] offsets = new int[keys.length + 1];
+        int[] values = new int[index.values().stream().mapToInt(Set::size).sum()];
+        for (int row = 0, p = 0; row < keys.length; row++) {
+            int start = p;
+            for (String value : index.get(names[keys[row]])) values[p++] = Arrays.binarySearch(names, value);
+            Arrays.sort(values, start, p);
+            offsets[row + 1] = p;
+        }
+        return new CompactIndex(names, keys, offsets, values);
+    }
+
+    @Override
+    public Set<String> get(Object key) {
+        int row = row(key);
+        return row >= 0 ? new Values(offsets[row], offsets[row + 1]) : null;
+    }
+
+    @Override
+    public Set<String> getOrDefault(Object key, Set<String> defaultValue) {
+        int row = row(key);
+        return row >= 0 ? new Values(offsets[row], offsets[row + 1]) : defaultValue;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return row(key) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return keys.length;
+    }
+
+    @Override
+    public Set<Entry<String, Set<String>>> entrySet() {
+        return new AbstractSet<Entry<String, Set<String>>>() {
+            @Override
+            public Iterator<Entry<String, Set<String>>> iterator() {
+                return new Iterator<Entry<String, Set<String>>>() {
+                    int row = 0;
+                    @Override public boolean hasNext() { return row < keys.length; }
+                    @Override public Entry<String, Set<String>> next() {
+                        if (!hasNext()) throw new NoSuchElementException();
+                        Entry<String, Set<String>> entry = new SimpleImmutableEntry<>(names[keys[row]], new Values(offsets[row], offsets[row + 1]));
+                        row++;
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return keys.length;
+            }
+        };
+    }
+
+    private int row(Object key) {
+        int id = id(key);
+        return id >= 0 ? Arrays.binarySearch(keys, id) : -1;
+    }
+
+    private int id(Object name) {
+        return name instanceof String ? Arrays.binarySearch(names, name) : -1;
+    }
+
+    /** immutable view of a row values */
+    private final class Values extends AbstractSet<String> {
+        private final int from, to;
+
+        Values(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            int id = id(o);
+            return id >= 0 && Arrays.binarySearch(values, from, to, id) >= 0;
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            return new Iterator<String>() {
+                int p = from;
+                @Override public boolean hasNext() { return p < to; }
+                @Override public String next() {
+                    if (!hasNext()) throw new NoSuchElementException();
+                    return names[values[p++]];
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+}
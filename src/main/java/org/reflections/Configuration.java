@@ -3,8 +3,10 @@ package org.reflections;
 import org.reflections.scanners.Scanner;
 
 import java.net.URL;
+import java.nio.file.Path;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.function.Predicate;
 
 /**
@@ -24,10 +26,69 @@ public interface Configuration {
     /** scan urls in parallel. defaults to true. */
     boolean isParallel();
 
+    /** optional executor of parallel scan tasks, defaults to null, in which case the common {@link java.util.concurrent.ForkJoinPool} is used.
+     * <p>applies only if {@link #isParallel()} */
+    default Executor getExecutor() {
+        return null;
+    }
+
+    /** maximum number of parallel scan workers, defaults to 0, meaning the executor parallelism.
+     * <p>if set without {@link #getExecutor()}, a dedicated {@link java.util.concurrent.ForkJoinPool} of that parallelism is used per scan */
+    default int getParallelism() {
+        return 0;
+    }
+
+    /** if true, parallel scan tasks such as opening each url run in their own virtual thread, for I/O bound scans. defaults to false.
+     * <p>requires java 21 or later, see {@link org.reflections.util.VirtualThreads} */
+    default boolean isVirtualThreads() {
+        return false;
+    }
+
+    /** optional staged scan pipeline, in which files are read, parsed and indexed by separate threads. defaults to null.
+     * <p>applies only if {@link #isParallel()}, see {@link ScanPipeline} */
+    default ScanPipeline getScanPipeline() {
+        return null;
+    }
+
     /** optional class loaders used for resolving types. */
     ClassLoader[] getClassLoaders();
 
     /** if true (default), expand super types after scanning, for super types that were not scanned.
      * <p>see {@link Reflections#expandSuperTypes(Map, Map)}*/
     boolean shouldExpandSuperTypes();
+
+    /** if true, super types are expanded by reading their class file headers instead of loading them, defaults to false.
+     * <p>see {@link Reflections#expandSuperTypesFromBytecode(Map, Map)}*/
+    default boolean shouldExpandSuperTypesFromBytecode() {
+        return false;
+    }
+
+    /** optional listener of scan phases, defaults to null.
+     * <p>scan metrics are aggregated regardless, see {@link Reflections#getScanMetrics()} */
+    default ScanListener getScanListener() {
+        return null;
+    }
+
+    /** if true, the scanned store is compacted into immutable sorted int arrays, defaults to false.
+     * <p>see {@link Store#compact(Map)} */
+    default boolean isCompactStore() {
+        return false;
+    }
+
+    /** if true, the transitive closure of {@code SubTypes} is indexed after scanning and expanding super types, defaults to false.
+     * <p>see {@link Store#closure(Map)} */
+    default boolean isSubTypesClosure() {
+        return false;
+    }
+
+    /** maximum number of query results cached by {@link Reflections#get(org.reflections.util.QueryFunction)}. defaults to 0 (no cache).
+     * <p>if set, the {@link Reflections#getStore()} is unmodifiable. see {@link org.reflections.util.QueryCache} */
+    default int getQueryCacheSize() {
+        return 0;
+    }
+
+    /** optional directory of per url scan results, so that only urls changed since last scanned are rescanned. defaults to null (no cache). */
+    default Path getScanCache() {
+        return null;
+    }
 }
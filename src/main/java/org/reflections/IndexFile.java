@@ -0,0 +1,194 @@
+package org.reflections;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * binary {@link Store} index file, memory mapped on load, see {@link Reflections#save(Path)} and {@link Reflections#load(Path)}.
+ * <p>layout (big endian):
+ * <pre>
+ * file:    magic, version, indexCount, indexCount * (nameLength, name utf8 bytes, section position, section length), sections
+ * section: namesCount, nameOffsets[namesCount + 1], keysCount, keys[keysCount], offsets[keysCount + 1],
+ *          valuesCount, values[valuesCount], names utf8 bytes
+ * </pre>
+ * each section is a self contained {@link CompactIndex}, and is decoded only on first access to its index
+ * <p>this is also the format of the per module {@link #RESOURCE} created by {@link org.reflections.processor.ReflectionsProcessor}
+ */
+public final class IndexFile {
+    /** class path resource of a module compile time index */
+    public static final String RESOURCE = "META-INF/reflections/index.bin";
+
+    private static final int MAGIC = 0x52464C58; // RFLX
+    private static final int VERSION = 1;
+
+    private IndexFile() {}
+
+    static Path save(Store store, Path path) throws IOException {
+        if (path.getParent() != null) Files.createDirectories(path.getParent());
+        try (OutputStream out = Files.newOutputStream(path)) {
+            write(store, out);
+        }
+        return path;
+    }
+
+    static Store load(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        return read(buffer, path.toString());
+    }
+
+    /** writes the {@code store} into {@code outputStream}, which is not closed */
+    public static void write(Store store, OutputStream outputStream) throws IOException {
+        List<String> indices = new ArrayList<>(store.keySet());
+        List<byte[]> sections = new ArrayList<>();
+        for (String index : indices) sections.add(section(store.get(index)));
+
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(indices.size());
+        int position = 12;
+        for (String index : indices) position += 12 + index.getBytes(StandardCharsets.UTF_8).length;
+        for (int i = 0; i < indices.size(); i++) {
+            byte[] name = indices.get(i).getBytes(StandardCharsets.UTF_8);
+            out.writeInt(name.length);
+            out.write(name);
+            out.writeInt(position);
+            out.writeInt(sections.get(i).length);
+            position += sections.get(i).length;
+        }
+        for (byte[] section : sections) out.write(section);
+        out.flush();
+    }
+
+    /** reads a store from {@code inputStream}, which is not closed. indices are decoded on first access */
+    public static Store read(InputStream inputStream, String source) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8 * 1024];
+        for (int n; (n = inputStream.read(buffer)) != -1; ) bytes.write(buffer, 0, n);
+        return read(ByteBuffer.wrap(bytes.toByteArray()), source);
+    }
+
+    private static Store read(ByteBuffer buffer, String source) {
+        if (buffer.limit() < 12 || buffer.getInt(0) != MAGIC) throw new ReflectionsException("not a reflections index file " + source);
+        if (buffer.getInt(4) != VERSION) throw new ReflectionsException("unsupported reflections index file version " + buffer.getInt(4) + " " + source);
+
+        Store store = new Store();
+        int p = 12;
+        for (int i = 0, count = buffer.getInt(8); i < count; i++) {
+            byte[] name = new byte[buffer.getInt(p)];
+            ByteBuffer slice = buffer.duplicate();
+            ((Buffer) slice).position(p + 4); // Buffer methods, java 9+ ByteBuffer overrides do not exist on java 8
+            slice.get(name);
+            p += 4 + name.length;
+            store.put(new String(name, StandardCharsets.UTF_8), new MappedIndex(buffer, buffer.getInt(p), buffer.getInt(p + 4)));
+            p += 8;
+        }
+        return store;
+    }
+
+    private static byte[] section(Map<String, Set<String>> index) throws IOException {
+        String[] names = index.entrySet().stream()
+            .flatMap(entry -> Stream.concat(Stream.of(entry.getKey()), entry.getValue().stream()))
+            .distinct().sorted().toArray(String[]::new);
+        CompactIndex compact = CompactIndex.of(names, index);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[][] encoded = new byte[names.length][];
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(names.length);
+        int offset = 0;
+        out.writeInt(offset);
+        for (int i = 0; i < names.length; i++) {
+            encoded[i] = names[i].getBytes(StandardCharsets.UTF_8);
+            out.writeInt(offset += encoded[i].length);
+        }
+        writeInts(out, compact.keys, true);
+        writeInts(out, compact.offsets, false);
+        writeInts(out, compact.values, true);
+        for (byte[] name : encoded) out.write(name);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void writeInts(DataOutputStream out, int[] ints, boolean withCount) throws IOException {
+        if (withCount) out.writeInt(ints.length);
+        for (int i : ints) out.writeInt(i);
+    }
+
+    /** lazily decoded index section */
+    private static final class MappedIndex extends AbstractMap<String, Set<String>> {
+        private final ByteBuffer buffer;
+        private final int position;
+        private final int length;
+        private volatile CompactIndex index;
+
+        MappedIndex(ByteBuffer buffer, int position, int length) {
+            this.buffer = buffer;
+            this.position = position;
+            this.length = length;
+        }
+
+        private CompactIndex index() {
+            CompactIndex index = this.index;
+            if (index == null) {
+                synchronized (this) {
+                    if ((index = this.index) == null) this.index = index = decode();
+                }
+            }
+            return index;
+        }
+
+        private CompactIndex decode() {
+            ByteBuffer section = buffer.duplicate();
+            ((Buffer) section).position(position);
+            section = section.slice();
+            ((Buffer) section).limit(length);
+
+            int[] nameOffsets = readInts(section, section.getInt() + 1);
+            int[] keys = readInts(section, section.getInt());
+            int[] offsets = readInts(section, keys.length + 1);
+            int[] values = readInts(section, section.getInt());
+            byte[] blob = new byte[nameOffsets[nameOffsets.length - 1]];
+            section.get(blob);
+            String[] names = new String[nameOffsets.length - 1];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = new String(blob, nameOffsets[i], nameOffsets[i + 1] - nameOffsets[i], StandardCharsets.UTF_8);
+            }
+            return new CompactIndex(names, keys, offsets, values);
+        }
+
+        private static int[] readInts(ByteBuffer section, int count) {
+            int[] ints = new int[count];
+            section.asIntBuffer().get(ints);
+            ((Buffer) section).position(section.position() + count * 4);
+            return ints;
+        }
+
+        @Override public Set<String> get(Object key) { return index().get(key); }
+        @Override public Set<String> getOrDefault(Object key, Set<String> defaultValue) { return index().getOrDefault(key, defaultValue); }
+        @Override public boolean containsKey(Object key) { return index().containsKey(key); }
+        @Override public int size() { return index().size(); }
+        @Override public Set<Entry<String, Set<String>>> entrySet() { return index().entrySet(); }
+    }
+}
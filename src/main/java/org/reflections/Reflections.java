@@ -1,25 +1,46 @@
 package org.reflections;
 
 import javassist.bytecode.ClassFile;
+import org.reflections.scanners.ClassHeader;
+import org.reflections.scanners.EntrySink;
 import org.reflections.scanners.Scanner;
 import org.reflections.scanners.Scanners;
+import org.reflections.util.ClasspathHelper;
 import org.reflections.util.ConfigurationBuilder;
+import org.reflections.util.FilterBuilder;
 import org.reflections.util.NameHelper;
+import org.reflections.util.QueryCache;
 import org.reflections.util.QueryFunction;
+import org.reflections.util.SymbolTable;
 import org.reflections.vfs.Vfs;
 
-import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.lang.annotation.Annotation;
 import java.net.URL;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -27,21 +48,42 @@ import static org.reflections.scanners.Scanners.*;
 
 public class Reflections implements NameHelper {
 
+    /** number of files per parallel scan task, see {@link Configuration#isParallel()} */
+    protected static final int SCAN_CHUNK_SIZE = 256;
+
     protected final transient Configuration configuration;
     protected final Store store;
+    /** optional query results cache, see {@link Configuration#getQueryCacheSize()} */
+    protected final transient QueryCache queryCache;
+    /** canonical names used while scanning and expanding, see {@link SymbolTable} */
+    protected transient SymbolTable symbols = new SymbolTable();
+    /** scan metrics, or null if not scanned, see {@link #getScanMetrics()} */
+    protected transient ScanMetrics metrics;
 
     /**
      * constructs Reflections instance and scan according to the given {@link org.reflections.Configuration}
      * <p>it is preferred to use {@link org.reflections.util.ConfigurationBuilder} <pre>{@code new Reflections(new ConfigurationBuilder()...)}</pre>
      */
     public Reflections(Configuration configuration) {
+        long start = System.nanoTime();
         this.configuration = configuration;
+        metrics = new ScanMetrics(configuration.getScanListener());
         Map<String, Map<String, Set<String>>> storeMap = scan();
         if (configuration.shouldExpandSuperTypes()) {
-            System.out.println("Should expand!");
-            expandSuperTypes(storeMap.get(SubTypes.index()), storeMap.get(TypesAnnotated.index()));
+            if (configuration.shouldExpandSuperTypesFromBytecode()) {
+                expandSuperTypesFromBytecode(storeMap.get(SubTypes.index()), storeMap.get(TypesAnnotated.index()));
+            } else {
+                expandSuperTypes(storeMap.get(SubTypes.index()), storeMap.get(TypesAnnotated.index()));
+            }
+        }
+        if (configuration.isSubTypesClosure() && storeMap.containsKey(SubTypes.index())) {
+            storeMap.put(Store.closureIndex(SubTypes.index()), Store.closure(storeMap.get(SubTypes.index())));
         }
-        store = new Store(storeMap);
+        Store store = configuration.isCompactStore() ? Store.compact(storeMap) : new Store(storeMap);
+        queryCache = configuration.getQueryCacheSize() > 0 ? new QueryCache(configuration.getQueryCacheSize()) : null;
+        this.store = queryCache != null ? Store.unmodifiable(store) : store;
+        symbols = null;
+        metrics.setScanNanos(System.nanoTime() - start);
     }
 
     public Reflections(String prefix) {
@@ -56,71 +98,537 @@ public class Reflections implements NameHelper {
         this(ConfigurationBuilder.build(params));
     }
 
+    private Reflections(Configuration configuration, Store store) {
+        this.configuration = configuration;
+        this.store = store;
+        queryCache = null;
+        metrics = new ScanMetrics(configuration.getScanListener());
+    }
+
+    /** constructs Reflections instance with the given {@code store}, without scanning. see {@link #load(Path)} */
+    public Reflections(Store store) {
+        configuration = new ConfigurationBuilder();
+        this.store = store;
+        symbols = null;
+        queryCache = null;
+    }
+
     protected Reflections() {
         configuration = new ConfigurationBuilder();
         store = new Store(new HashMap<>());
+        queryCache = null;
+    }
+
+    /**
+     * loads Reflections instance from a binary index file previously created using {@link #save(Path)}, without scanning.
+     * <p>the file is memory mapped, and each index is decoded only when first queried
+     * <pre>{@code Reflections reflections = Reflections.load(Paths.get("META-INF/reflections/index.bin"))}</pre>
+     */
+    public static Reflections load(Path path) {
+        try {
+            return new Reflections(IndexFile.load(path));
+        } catch (IOException e) {
+            throw new ReflectionsException("could not load index file " + path, e);
+        }
+    }
+
+    /** serialize the scanned {@link Store} into a compact binary index file, which can be loaded later using {@link #load(Path)} */
+    public Path save(Path path) {
+        try {
+            return IndexFile.save(store, path);
+        } catch (IOException e) {
+            throw new ReflectionsException("could not save index file " + path, e);
+        }
     }
 
     protected Map<String, Map<String, Set<String>>> scan() {
-        long start = System.currentTimeMillis();
-        Map<String, Set<Map.Entry<String, String>>> collect = configuration.getScanners().stream().map(Scanner::index).distinct()
-            .collect(Collectors.toMap(s -> s, s -> Collections.synchronizedSet(new HashSet<>())));
         Set<URL> urls = configuration.getUrls();
+        ScanCache cache = ScanCache.of(configuration);
+        try (ScanExecutor executor = ScanExecutor.of(configuration)) {
+            return cache != null ? scanCached(urls, cache, executor) : scan(urls, executor);
+        }
+    }
+
+    /**
+     * reuse the cached segments of unchanged urls, and rescan (and cache) only the urls changed since cached.
+     * <p>changed urls are scanned together, in parallel like {@link #scan(Set, ScanExecutor)}, keeping a store map per url
+     * <p>see {@link Configuration#getScanCache()}
+     */
+    private Map<String, Map<String, Set<String>>> scanCached(Set<URL> urls, ScanCache cache, ScanExecutor executor) {
+        Map<URL, ScanCache.Entry> entries = new LinkedHashMap<>();
+        for (ScanCache.Entry entry : executor.map(urls, cache::lookup)) entries.put(entry.url, entry);
+
+        Map<String, Map<String, Set<String>>> storeMap = newStoreMap();
+        entries.values().stream().filter(entry -> entry.segment != null).forEach(entry -> entry.segment.forEach((index, keys) -> {
+            Map<String, Set<String>> into = storeMap.computeIfAbsent(index, i -> new HashMap<>());
+            keys.forEach((key, values) -> {
+                Set<String> set = into.computeIfAbsent(symbols.intern(key), k -> new HashSet<>());
+                for (String value : values) set.add(symbols.intern(value));
+            });
+        }));
+
+        Set<URL> changed = entries.values().stream().filter(entry -> entry.segment == null).map(entry -> entry.url).collect(Collectors.toCollection(LinkedHashSet::new));
+        if (!changed.isEmpty()) {
+            Map<URL, Map<String, Map<String, Set<String>>>> segments = scan(changed, executor, url -> url);
+            executor.forEach(segments.entrySet(), segment -> {
+                try {
+                    cache.put(entries.get(segment.getKey()), segment.getValue());
+                } catch (Exception e) {
+                    metrics.onFailure(segment.getKey().toExternalForm(), e);
+                }
+            });
+            try {
+                cache.evict();
+            } catch (Exception e) {
+                metrics.onFailure(configuration.getScanCache().toString(), e);
+            }
+            segments.values().forEach(segment -> timedMerge(storeMap, segment));
+        }
+        return storeMap;
+    }
 
-        (configuration.isParallel() ? urls.stream().parallel() : urls.stream()).forEach(url -> {
-            Vfs.Dir dir = null;
+    private Map<String, Map<String, Set<String>>> scan(Set<URL> urls, ScanExecutor executor) {
+        Map<String, Map<String, Set<String>>> storeMap = scan(urls, executor, url -> null).get(null);
+        return storeMap != null ? storeMap : newStoreMap();
+    }
+
+    /**
+     * scan urls into a store map per segment, where each url belongs to the segment {@code segmentOf(url)},
+     * for example {@code url -> url} for a store map per url, or {@code url -> null} for a single store map.
+     * <p>every opened url segment is included, even if no file was scanned
+     */
+    private Map<URL, Map<String, Map<String, Set<String>>>> scan(Set<URL> urls, ScanExecutor executor, Function<URL, URL> segmentOf) {
+        if (executor.isParallel()) {
+            return scanParallel(urls, executor, segmentOf);
+        } else {
+            Map<URL, Map<String, Map<String, Set<String>>>> segments = new HashMap<>();
+            List<Vfs.Dir> dirs = new ArrayList<>(); // closed once scanned, so that nested urls share their outer jar, see Vfs.DefaultUrlTypes#nestedJar
             try {
-                dir = Vfs.fromURL(url);
-                for (Vfs.File file : dir.getFiles()) {
-                    if (doFilter(file, configuration.getInputsFilter())) {
-                        ClassFile classFile = null;
-                        for (Scanner scanner : configuration.getScanners()) {
-                            try {
-                                if (doFilter(file, scanner::acceptsInput)) {
-                                    List<Map.Entry<String, String>> entries = scanner.scan(file);
-                                    if (entries == null) {
-                                        if (classFile == null) classFile = getClassFile(file);
-                                        entries = scanner.scan(classFile);
-                                    }
-                                    if (entries != null) collect.get(scanner.index()).addAll(entries);
-                                }
-                            } catch (Exception e) {
-                                e.printStackTrace();
-                            }
+                urls.forEach(url -> {
+                    Vfs.Dir dir = open(url);
+                    if (dir == null) return;
+                    dirs.add(dir);
+                    ScanVisitor visitor = collect(segments.computeIfAbsent(segmentOf.apply(url), s -> newStoreMap()));
+                    if (scanIndex(dir, visitor)) return;
+                    for (Vfs.File file : listFiles(url, dir)) scan(file, visitor);
+                });
+            } finally {
+                dirs.forEach(Vfs.Dir::close);
+            }
+            return segments;
+        }
+    }
+
+    /**
+     * scan urls in parallel on the given {@code executor}, splitting the files of each url into chunks of {@link #SCAN_CHUNK_SIZE}.
+     * <p>chunks are scheduled largest url first, so that a single large jar or directory is spread across all workers,
+     * instead of being scanned by one thread after the smaller urls are done
+     * <p>each worker collects into its own store maps, without locking, and these are merged pairwise in parallel,
+     * see {@link #merge(Map, Map)}
+     * <p>if {@link Configuration#getScanPipeline()} is set, files are instead read, parsed and indexed by separate stages, see {@link ScanPipeline}
+     */
+    private Map<URL, Map<String, Map<String, Set<String>>>> scanParallel(Set<URL> urls, ScanExecutor executor, Function<URL, URL> segmentOf) {
+        Map<URL, Vfs.Dir> dirs = executor.map(urls, url -> new AbstractMap.SimpleEntry<>(url, open(url))).stream()
+            .filter(entry -> entry.getValue() != null)
+            .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+
+        try {
+            Map<URL, Map<String, Map<String, Set<String>>>> indexed = new HashMap<>();
+            for (URL url : dirs.keySet()) indexed.computeIfAbsent(segmentOf.apply(url), s -> newStoreMap());
+            List<Map.Entry<URL, Vfs.Dir>> unindexed = dirs.entrySet().stream()
+                .filter(entry -> !scanIndex(entry.getValue(), collect(indexed.get(segmentOf.apply(entry.getKey())))))
+                .collect(Collectors.toList());
+            List<Map.Entry<URL, List<Vfs.File>>> dirFiles = executor.map(unindexed, entry ->
+                new AbstractMap.SimpleEntry<>(segmentOf.apply(entry.getKey()), listFiles(entry.getKey(), entry.getValue())));
+            dirFiles.sort(Comparator.comparingInt((Map.Entry<URL, List<Vfs.File>> entry) -> entry.getValue().size()).reversed());
+
+            List<ScannedFile> files = new ArrayList<>();
+            for (Map.Entry<URL, List<Vfs.File>> entry : dirFiles) {
+                for (Vfs.File file : entry.getValue()) files.add(new ScannedFile(entry.getKey(), file));
+            }
+            ScanPipeline pipeline = configuration.getScanPipeline();
+            Map<URL, Map<String, Map<String, Set<String>>>> segments = pipeline != null ?
+                pipeline.run(files, configuration.isVirtualThreads(), this::read, this::parse, HashMap::new, this::index, this::timedMergeSegments) :
+                executor.collect(chunks(files), HashMap::new,
+                    (chunkSegments, chunk) -> {
+                        for (ScannedFile file : chunk) scan(file.file, collect(chunkSegments.computeIfAbsent(file.segment, s -> newStoreMap())));
+                    },
+                    this::timedMergeSegments);
+            return timedMergeSegments(segments, indexed);
+        } finally {
+            dirs.values().forEach(Vfs.Dir::close);
+        }
+    }
+
+    /** splits {@code files} into chunks of {@link #SCAN_CHUNK_SIZE}, not crossing segments */
+    private static List<List<ScannedFile>> chunks(List<ScannedFile> files) {
+        List<List<ScannedFile>> chunks = new ArrayList<>();
+        for (int start = 0, end; start < files.size(); start = end) {
+            URL segment = files.get(start).segment;
+            for (end = start + 1; end < files.size() && end - start < SCAN_CHUNK_SIZE && Objects.equals(files.get(end).segment, segment); end++);
+            chunks.add(files.subList(start, end));
+        }
+        return chunks;
+    }
+
+    /** opens {@code url} as {@link Vfs.Dir}, or returns null if failed, see {@link ScanListener#onOpen(URL, long)} */
+    private Vfs.Dir open(URL url) {
+        long start = System.nanoTime();
+        try {
+            Vfs.Dir dir = Vfs.fromURL(url);
+            metrics.onOpen(url, System.nanoTime() - start);
+            return dir;
+        } catch (Exception e) {
+            metrics.onFailure(url.toExternalForm(), e);
+            return null;
+        }
+    }
+
+    /** files of {@code dir} accepted by the inputs filter, see {@link ScanListener#onFiles(URL, int, long)} */
+    private List<Vfs.File> listFiles(URL url, Vfs.Dir dir) {
+        long start = System.nanoTime();
+        List<Vfs.File> files = new ArrayList<>();
+        try {
+            for (Vfs.File file : getFiles(dir)) {
+                if (doFilter(file, configuration.getInputsFilter())) files.add(file);
+            }
+        } catch (Exception e) {
+            metrics.onFailure(url.toExternalForm(), e);
+        }
+        metrics.onFiles(url, files.size(), System.nanoTime() - start);
+        return files;
+    }
+
+    /**
+     * scan according to the given {@code configuration}, passing each scanned key/value to the {@code visitor},
+     * without creating and retaining a {@link Store}.
+     * <p>scanning stops once the visitor returns false. urls are scanned one file at a time, so that memory is bounded regardless of the classpath size.
+     * if {@link Configuration#isParallel()}, urls are scanned in parallel and the visitor should be thread safe.
+     * <p>values are not deduplicated, and super types are not expanded
+     * <pre>{@code
+     * Reflections.visit(new ConfigurationBuilder().forPackage("com.my.project"),
+     *   (index, key, value) -> {
+     *     if (index.equals(SubTypes.index()) && key.equals(Handler.class.getName())) register(value);
+     *     return true;
+     *   });
+     * }</pre>
+     */
+    public static void visit(Configuration configuration, ScanVisitor visitor) {
+        new Reflections(configuration, new Store()).visit(visitor);
+    }
+
+    private void visit(ScanVisitor visitor) {
+        AtomicBoolean stopped = new AtomicBoolean();
+        ScanVisitor stopping = (index, key, value) -> {
+            if (stopped.get() || !visitor.visit(index, key, value)) stopped.set(true);
+            return !stopped.get();
+        };
+        try (ScanExecutor executor = ScanExecutor.of(configuration)) {
+            executor.forEach(configuration.getUrls(), url -> visit(url, stopped, stopping));
+        }
+    }
+
+    /** scans a single {@code url} into {@code visitor}, unless {@code stopped} */
+    private void visit(URL url, AtomicBoolean stopped, ScanVisitor visitor) {
+        if (stopped.get()) return;
+        Vfs.Dir dir = open(url);
+        if (dir == null) return;
+        try {
+            if (scanIndex(dir, visitor)) return;
+            for (Vfs.File file : getFiles(dir)) {
+                if (stopped.get()) return;
+                if (doFilter(file, configuration.getInputsFilter())) scan(file, visitor);
+            }
+        } catch (Exception e) {
+            metrics.onFailure(url.toExternalForm(), e);
+        } finally {
+            dir.close();
+        }
+    }
+
+    /** true if all class files of {@code dir} are indexed, as values of {@code SubTypes} in the compile time {@code index} */
+    private static boolean isComplete(Store index, Vfs.Dir dir) {
+        Map<String, Set<String>> subTypes = index.get(SubTypes.index());
+        if (subTypes == null) return false;
+        Set<String> types = new HashSet<>();
+        subTypes.values().forEach(types::addAll);
+        for (Vfs.File file : dir.getFiles()) {
+            String path = file.getRelativePath();
+            if (!path.endsWith(".class") || path.endsWith("module-info.class") || path.endsWith("package-info.class")) continue;
+            if (!types.contains(path.substring(0, path.length() - ".class".length()).replace('/', '.'))) return false;
+        }
+        return true;
+    }
+
+    /** visitor adding key/values into {@code storeMap}, using canonical names */
+    private ScanVisitor collect(Map<String, Map<String, Set<String>>> storeMap) {
+        return (index, key, value) -> {
+            storeMap.get(index).computeIfAbsent(symbols.intern(key), k -> new HashSet<>()).add(symbols.intern(value));
+            return true;
+        };
+    }
+
+    /**
+     * loads the compile time index of {@code dir} into {@code visitor}, instead of scanning its class files.
+     * <p>applies only if {@code dir} contains the {@link IndexFile#RESOURCE} created by {@link org.reflections.processor.ReflectionsProcessor},
+     * and all configured scanners are built-in {@link Scanners} indexed in it. the inputs filter and scanners result filters are applied on the indexed types
+     * <p>the index is used only if it is complete, such that every class file in {@code dir} is indexed, otherwise {@code dir} is scanned.
+     * for example, anonymous and local classes are not indexed by the annotation processor, nor classes compiled without it
+     * @return true if {@code dir} was loaded from its index
+     */
+    private boolean scanIndex(Vfs.Dir dir, ScanVisitor visitor) {
+        Set<Scanner> scanners = configuration.getScanners();
+        if (!scanners.stream().allMatch(scanner -> scanner instanceof Scanners)) return false;
+        Vfs.File indexFile = dir.getFile(IndexFile.RESOURCE);
+        if (indexFile == null) return false;
+
+        Store index;
+        try (InputStream inputStream = indexFile.openInputStream()) {
+            index = IndexFile.read(inputStream, indexFile.toString());
+        } catch (Exception e) {
+            metrics.onFailure(indexFile.toString(), e);
+            return false;
+        }
+        if (!scanners.stream().allMatch(scanner -> index.containsKey(scanner.index())) || !isComplete(index, dir)) return false;
+
+        for (Scanner scanner : scanners) {
+            for (Map.Entry<String, Set<String>> entry : index.get(scanner.index()).entrySet()) {
+                if (!((Scanners) scanner).acceptResult(entry.getKey())) continue;
+                for (String value : entry.getValue()) {
+                    String path = value.replace('.', '/') + ".class";
+                    if (doFilter(path, configuration.getInputsFilter()) && doFilter(path, scanner::acceptsInput)) {
+                        if (!visitor.visit(scanner.index(), entry.getKey(), value)) return true;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * scan {@code file} by each accepting scanner, preferring {@link Scanner#scan(Vfs.File)},
+     * then the entry sink {@link Scanner#scan(ClassHeader, EntrySink)}, and then {@link Scanner#scan(ClassFile)}.
+     * <p>class bytes, header and class file are each read at most once per file, and only if needed
+     * <p>see {@link ScanListener#onParse(String, int, long)} and {@link ScanListener#onScan(String, int, long)}
+     */
+    private void scan(Vfs.File file, ScanVisitor visitor) {
+        scan(file, null, visitor);
+    }
+
+    /** scan {@code file} like {@link #scan(Vfs.File, ScanVisitor)}, using its already read {@code bytes} if not null */
+    private void scan(Vfs.File file, ClassBytes bytes, ScanVisitor visitor) {
+        ClassHeader header = null;
+        ClassFile classFile = null;
+        IndexSink sink = new IndexSink(visitor);
+        for (Scanner scanner : configuration.getScanners()) {
+            try {
+                if (doFilter(file, scanner::acceptsInput)) {
+                    long start = System.nanoTime(), parse = 0;
+                    sink.index = scanner.index();
+                    sink.count = 0;
+                    List<Map.Entry<String, String>> entries = scanner.scan(file);
+                    if (entries == null) {
+                        if (header == null) {
+                            if (bytes == null) bytes = ClassBytes.read(file);
+                            header = bytes.getClassHeader();
+                            metrics.onParse(file.getRelativePath(), bytes.length, parse = System.nanoTime() - start);
+                        }
+                        if (!scanner.scan(header, sink)) {
+                            if (classFile == null) classFile = bytes.getClassFile();
+                            entries = scanner.scan(classFile);
                         }
                     }
+                    if (entries != null) {
+                        for (Map.Entry<String, String> entry : entries) sink.put(entry.getKey(), entry.getValue());
+                    }
+                    metrics.onScan(sink.index, sink.count, System.nanoTime() - start - parse);
+                    if (sink.stopped) return;
                 }
             } catch (Exception e) {
-                e.printStackTrace();
-            } finally {
-                if (dir != null) dir.close();
+                metrics.onFailure(file.toString(), e);
             }
+        }
+    }
+
+    /** pipeline read stage, reads the bytes of the file if accepted by any scanner, see {@link ScanPipeline} */
+    private ScannedFile read(ScannedFile scannedFile) {
+        Vfs.File file = scannedFile.file;
+        try {
+            boolean accepted = configuration.getScanners().stream().anyMatch(scanner -> doFilter(file, scanner::acceptsInput));
+            if (!accepted) return null;
+            scannedFile.bytes = ClassBytes.read(file).copy();
+            return scannedFile;
+        } catch (Exception e) {
+            metrics.onFailure(file.toString(), e);
+            return null;
+        }
+    }
+
+    /** pipeline parse stage, scans the read file into a list of index, key and value triplets */
+    private ScannedFile parse(ScannedFile scannedFile) {
+        List<String> entries = new ArrayList<>();
+        scan(scannedFile.file, scannedFile.bytes, (index, key, value) -> {
+            entries.add(index);
+            entries.add(key);
+            entries.add(value);
+            return true;
         });
+        scannedFile.bytes = null;
+        scannedFile.entries = entries;
+        return entries.isEmpty() ? null : scannedFile;
+    }
+
+    /** pipeline index stage, adds the parsed entries triplets into the file segment store map */
+    private void index(Map<URL, Map<String, Map<String, Set<String>>>> segments, ScannedFile scannedFile) {
+        ScanVisitor visitor = collect(segments.computeIfAbsent(scannedFile.segment, s -> newStoreMap()));
+        List<String> entries = scannedFile.entries;
+        for (int i = 0; i < entries.size(); i += 3) visitor.visit(entries.get(i), entries.get(i + 1), entries.get(i + 2));
+    }
+
+    /** file to be scanned into its {@code segment} store map, and its bytes and entries when scanned by stages */
+    private static final class ScannedFile {
+        private final URL segment;
+        private final Vfs.File file;
+        private ClassBytes bytes;
+        private List<String> entries;
 
-        // merge
-        Map<String, Map<String, Set<String>>> storeMap =
-            collect.entrySet().stream()
-                .collect(Collectors.toMap(
-                    Map.Entry::getKey,
-                    entry -> entry.getValue().stream().filter(e -> e.getKey() != null)
-                        .collect(Collectors.groupingBy(
-                            Map.Entry::getKey,
-                            HashMap::new,
-                            Collectors.mapping(Map.Entry::getValue, Collectors.toSet())))));
+        ScannedFile(URL segment, Vfs.File file) {
+            this.segment = segment;
+            this.file = file;
+        }
+    }
+
+    /** entry sink passing the key/values of the current scanner {@code index} to the visitor, until it returns false */
+    private static final class IndexSink implements EntrySink {
+        private final ScanVisitor visitor;
+        private String index;
+        private int count;
+        private boolean stopped;
+
+        IndexSink(ScanVisitor visitor) {
+            this.visitor = visitor;
+        }
+
+        @Override
+        public void put(String key, String value) {
+            if (key == null || stopped) return;
+            count++;
+            if (!visitor.visit(index, key, value)) stopped = true;
+        }
+    }
+
+    private Map<String, Map<String, Set<String>>> newStoreMap() {
+        Map<String, Map<String, Set<String>>> storeMap = new HashMap<>();
+        for (Scanner scanner : configuration.getScanners()) storeMap.putIfAbsent(scanner.index(), new HashMap<>());
+        return storeMap;
+    }
+
+    /** merge {@code other} store map into {@code storeMap}, see {@link ScanListener#onMerge(long)} */
+    private Map<String, Map<String, Set<String>>> timedMerge(Map<String, Map<String, Set<String>>> storeMap, Map<String, Map<String, Set<String>>> other) {
+        long start = System.nanoTime();
+        merge(storeMap, other);
+        metrics.onMerge(System.nanoTime() - start);
         return storeMap;
     }
 
+    /** merge {@code other} store map of each segment into {@code segments}, see {@link #timedMerge(Map, Map)} */
+    private Map<URL, Map<String, Map<String, Set<String>>>> timedMergeSegments(Map<URL, Map<String, Map<String, Set<String>>>> segments,
+                                                                              Map<URL, Map<String, Map<String, Set<String>>>> other) {
+        other.forEach((segment, storeMap) -> segments.merge(segment, storeMap, this::timedMerge));
+        return segments;
+    }
+
+    /** merge {@code other} store map into {@code storeMap}, adding the smaller of each index/key values into the larger */
+    private static void merge(Map<String, Map<String, Set<String>>> storeMap, Map<String, Map<String, Set<String>>> other) {
+        other.forEach((index, otherKeys) -> {
+            Map<String, Set<String>> keys = storeMap.get(index);
+            if (keys == null || keys.size() < otherKeys.size()) {
+                storeMap.put(index, otherKeys);
+                if (keys == null) return;
+                Map<String, Set<String>> swap = keys; keys = otherKeys; otherKeys = swap;
+            }
+            Map<String, Set<String>> into = keys;
+            otherKeys.forEach((key, otherValues) -> into.merge(key, otherValues, (values, add) -> {
+                if (values.size() < add.size()) { add.addAll(values); return add; }
+                values.addAll(add);
+                return values;
+            }));
+        });
+    }
+
+    /** files of {@code dir}, skipping sub trees excluded by the inputs filter package prefixes, see {@link FilterBuilder#getPackagePrefixes()} */
+    private Iterable<Vfs.File> getFiles(Vfs.Dir dir) {
+        Predicate<String> inputsFilter = configuration.getInputsFilter();
+        return dir.getFiles(inputsFilter instanceof FilterBuilder ? ((FilterBuilder) inputsFilter).getPackagePrefixes() : null);
+    }
+
     private boolean doFilter(Vfs.File file, Predicate<String> predicate) {
-        String path = file.getRelativePath();
-        String fqn = path.replace('/', '.');
-        return predicate == null || predicate.test(path) || predicate.test(fqn);
+        return doFilter(file.getRelativePath(), predicate);
     }
 
-    private ClassFile getClassFile(Vfs.File file) {
-        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(file.openInputStream()))) {
-            return new ClassFile(dis);
-        } catch (Exception e) {
-            throw new ReflectionsException("could not create class object from file " + file.getRelativePath(), e);
+    private boolean doFilter(String path, Predicate<String> predicate) {
+        if (predicate instanceof FilterBuilder) return ((FilterBuilder) predicate).testPath(path);
+        return predicate == null || predicate.test(path) || predicate.test(path.replace('/', '.'));
+    }
+
+    /** class file bytes, read once per file into a reusable per thread buffer */
+    private static final class ClassBytes {
+        private static final ThreadLocal<byte[]> buffer = ThreadLocal.withInitial(() -> new byte[8 * 1024]);
+
+        private final String source;
+        private final byte[] bytes;
+        private final int length;
+
+        private ClassBytes(String source, byte[] bytes, int length) {
+            this.source = source;
+            this.bytes = bytes;
+            this.length = length;
+        }
+
+        static ClassBytes read(Vfs.File file) {
+            try {
+                return read(file.openInputStream(), file.getRelativePath());
+            } catch (IOException e) {
+                throw new ReflectionsException("could not read class file " + file.getRelativePath(), e);
+            }
+        }
+
+        static ClassBytes read(InputStream stream, String source) {
+            try (InputStream inputStream = stream) {
+                byte[] bytes = buffer.get();
+                int length = 0;
+                for (int n; (n = inputStream.read(bytes, length, bytes.length - length)) != -1; ) {
+                    length += n;
+                    if (length == bytes.length) {
+                        bytes = Arrays.copyOf(bytes, bytes.length * 2);
+                        buffer.set(bytes);
+                    }
+                }
+                return new ClassBytes(source, bytes, length);
+            } catch (Exception e) {
+                throw new ReflectionsException("could not read class file " + source, e);
+            }
+        }
+
+        /** copy of the bytes, which are otherwise reused by the next read on the same thread */
+        ClassBytes copy() {
+            return new ClassBytes(source, Arrays.copyOf(bytes, length), length);
+        }
+
+        ClassHeader getClassHeader() {
+            try {
+                return ClassHeader.read(bytes, length);
+            } catch (Exception e) {
+                throw new ReflectionsException("could not read class header from file " + source, e);
+            }
+        }
+
+        ClassFile getClassFile() {
+            try (DataInputStream dis = new DataInputStream(new ByteArrayInputStream(bytes, 0, length))) {
+                return new ClassFile(dis);
+            } catch (Exception e) {
+                throw new ReflectionsException("could not create class object from file " + source, e);
+            }
         }
     }
 
@@ -133,32 +641,124 @@ public class Reflections implements NameHelper {
      *     <li>if scanning C resulted in B (B->C in store), but A was not scanned (although A is a supertype of B) - then getSubTypes(A) will not return C</li>
      *     <li>if expanding supertypes, B will be expanded with A (A->B in store) - then getSubTypes(A) will return C</li>
      * </ul>
+     * <p>note that the {@link #getStore()} cannot be expanded once query results are cached, see {@link Configuration#getQueryCacheSize()}
      */
     public void expandSuperTypes(Map<String, Set<String>> subTypesStore, Map<String, Set<String>> typesAnnotatedStore) {
         if (subTypesStore == null || subTypesStore.isEmpty()) return;
-        Set<String> keys = new LinkedHashSet<>(subTypesStore.keySet());
-        keys.removeAll(subTypesStore.values().stream().flatMap(Collection::stream).collect(Collectors.toSet()));
-        keys.remove("java.lang.Object");
+        invalidateQueryCache();
+        long start = System.nanoTime();
+        Set<String> keys = unscannedKeys(subTypesStore);
         for (String key : keys) {
             Class<?> type = forClass(key, loaders());
             if (type != null) {
                 expandSupertypes(subTypesStore, typesAnnotatedStore, key, type);
             }
         }
+        rebuildClosure();
+        if (metrics != null) metrics.onExpandSuperTypes(keys.size(), System.nanoTime() - start);
+    }
+
+    /**
+     * expand super types like {@link #expandSuperTypes(Map, Map)}, but without loading classes.
+     * <p>each super type is resolved by reading only its class file header, using {@link ClassLoader#getResource(String)},
+     * so that third party classes are not loaded, linked or initialized. class headers are read once per type,
+     * and unscanned keys are expanded in parallel if {@link Configuration#isParallel()}.
+     * <p>note that only declared (not {@link java.lang.annotation.Inherited}) annotations are indexed in {@code typesAnnotatedStore}
+     * <p>see {@link Configuration#shouldExpandSuperTypesFromBytecode()}
+     */
+    public void expandSuperTypesFromBytecode(Map<String, Set<String>> subTypesStore, Map<String, Set<String>> typesAnnotatedStore) {
+        if (subTypesStore == null || subTypesStore.isEmpty()) return;
+        invalidateQueryCache();
+        long start = System.nanoTime();
+        Set<String> scannedKeys = new HashSet<>(subTypesStore.keySet());
+        ClassLoader[] classLoaders = ClasspathHelper.classLoaders(loaders());
+        Map<String, Optional<ClassHeader>> headers = new ConcurrentHashMap<>();
+        Set<String> keys = unscannedKeys(subTypesStore);
+
+        Map<String, Map<String, Set<String>>> expanded;
+        try (ScanExecutor executor = ScanExecutor.of(configuration)) {
+            expanded = executor.collect(keys, HashMap::new,
+                (storeMap, key) -> merge(storeMap, expandFromBytecode(key, scannedKeys, headers, classLoaders)),
+                (a, b) -> { merge(a, b); return a; });
+        }
+
+        expanded.forEach((index, keyValues) -> {
+            Map<String, Set<String>> into = index.equals(SubTypes.index()) ? subTypesStore : typesAnnotatedStore;
+            if (into == null) return;
+            keyValues.forEach((key, values) -> {
+                Set<String> set = into.computeIfAbsent(intern(key), k -> new HashSet<>());
+                for (String value : values) set.add(intern(value));
+            });
+        });
+        rebuildClosure();
+        if (metrics != null) metrics.onExpandSuperTypes(keys.size(), System.nanoTime() - start);
+    }
+
+    /** rebuilds the {@code SubTypes} closure index of the store after expanding, if indexed, see {@link Configuration#isSubTypesClosure()} */
+    private void rebuildClosure() {
+        String closureIndex = Store.closureIndex(SubTypes.index());
+        if (store != null && store.containsKey(closureIndex) && store.containsKey(SubTypes.index())) {
+            store.put(closureIndex, Store.closure(store.get(SubTypes.index())));
+        }
+    }
+
+    /** super types and annotations of the given unscanned {@code key}, traversing its class file headers up to scanned keys */
+    private static Map<String, Map<String, Set<String>>> expandFromBytecode(String key, Set<String> scannedKeys,
+                                                                           Map<String, Optional<ClassHeader>> headers, ClassLoader[] classLoaders) {
+        Map<String, Set<String>> subTypes = new HashMap<>(), typesAnnotated = new HashMap<>();
+        Deque<String> work = new ArrayDeque<>(Collections.singleton(key));
+        Set<String> visited = new HashSet<>(work);
+        while (!work.isEmpty()) {
+            String name = work.poll();
+            ClassHeader header = headers.computeIfAbsent(name, n -> Optional.ofNullable(readClassHeader(n, classLoaders))).orElse(null);
+            if (header == null) continue;
+            for (String annotation : header.getAnnotations()) typesAnnotated.computeIfAbsent(annotation, a -> new HashSet<>()).add(name);
+            List<String> supertypes = new ArrayList<>(Arrays.asList(header.getInterfaces()));
+            if (header.getSuperclass() != null && !header.getSuperclass().equals("java.lang.Object")) supertypes.add(0, header.getSuperclass());
+            for (String supertype : supertypes) {
+                subTypes.computeIfAbsent(supertype, s -> new HashSet<>()).add(name);
+                if (!scannedKeys.contains(supertype) && visited.add(supertype)) work.add(supertype);
+            }
+        }
+        Map<String, Map<String, Set<String>>> storeMap = new HashMap<>();
+        storeMap.put(SubTypes.index(), subTypes);
+        storeMap.put(TypesAnnotated.index(), typesAnnotated);
+        return storeMap;
+    }
+
+    /** class file header of the given type {@code name}, read using the given {@code classLoaders}, or null if not found */
+    private static ClassHeader readClassHeader(String name, ClassLoader[] classLoaders) {
+        String resource = name.replace('.', '/') + ".class";
+        for (ClassLoader classLoader : classLoaders) {
+            try {
+                InputStream inputStream = classLoader.getResourceAsStream(resource);
+                if (inputStream != null) return ClassBytes.read(inputStream, resource).getClassHeader();
+            } catch (Exception ignored) {
+            }
+        }
+        return null;
+    }
+
+    /** keys which are not values, meaning super types which were not scanned */
+    private static Set<String> unscannedKeys(Map<String, Set<String>> subTypesStore) {
+        Set<String> keys = new LinkedHashSet<>(subTypesStore.keySet());
+        keys.removeAll(subTypesStore.values().stream().flatMap(Collection::stream).collect(Collectors.toSet()));
+        keys.remove("java.lang.Object");
+        return keys;
     }
 
     private void expandSupertypes(Map<String, Set<String>> subTypesStore,
               Map<String, Set<String>> typesAnnotatedStore, String key, Class<?> type) {
         Set<Annotation> typeAnnotations = ReflectionUtils.getAnnotations(type);
         if (typesAnnotatedStore != null && !typeAnnotations.isEmpty()) {
-            String typeName = type.getName();
+            String typeName = intern(type.getName());
             for (Annotation typeAnnotation : typeAnnotations) {
-                String annotationName = typeAnnotation.annotationType().getName();
+                String annotationName = intern(typeAnnotation.annotationType().getName());
                 typesAnnotatedStore.computeIfAbsent(annotationName, s -> new HashSet<>()).add(typeName);
             }
         }
         for (Class<?> supertype : ReflectionUtils.getSuperTypes(type)) {
-            String supertypeName = supertype.getName();
+            String supertypeName = intern(supertype.getName());
             if (subTypesStore.containsKey(supertypeName)) {
                 subTypesStore.get(supertypeName).add(key);
             } else {
@@ -168,6 +768,10 @@ public class Reflections implements NameHelper {
         }
     }
 
+    private String intern(String name) {
+        return symbols != null ? symbols.intern(name) : name;
+    }
+
     /**
      * apply {@link QueryFunction} on {@link Store}
      * <pre>{@code Set<T> ts = get(query)}</pre>
@@ -177,9 +781,31 @@ public class Reflections implements NameHelper {
      * Set<Class<?>> subtypes = get(Scanners.SubTypes.of(B.class).asClass())
      * Set<Method> methods = get(ReflectionUtils.Methods.of(B.class))
      * }</pre>
+     * <p>if {@link Configuration#getQueryCacheSize()} is set, results are cached by query identity and are unmodifiable
      */
     public <T> Set<T> get(QueryFunction<Store, T> query) {
-        return query.apply(store);
+        return queryCache != null ? queryCache.get(query, () -> query.apply(store)) : query.apply(store);
+    }
+
+    /** returns the {@link Store} object used for indexing and querying.
+     * <p>if {@link Configuration#getQueryCacheSize()} is set, the store is unmodifiable, so that cached results cannot become stale */
+    public Store getStore() {
+        return store;
+    }
+
+    /** the metrics of the scan, or null if this instance was not scanned, see {@link Configuration#getScanListener()} */
+    public ScanMetrics getScanMetrics() {
+        return metrics;
+    }
+
+    /** the query results cache, or null if not configured. see {@link Configuration#getQueryCacheSize()} */
+    public QueryCache getQueryCache() {
+        return queryCache;
+    }
+
+    /** removes all cached query results */
+    public void invalidateQueryCache() {
+        if (queryCache != null) queryCache.invalidate();
     }
 
     /**
@@ -0,0 +1,226 @@
+package org.reflections;
+
+import org.reflections.scanners.Scanner;
+import org.reflections.scanners.Scanners;
+import org.reflections.util.ConfigurationBuilder;
+import org.reflections.util.FilterBuilder;
+import org.reflections.vfs.Vfs;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * persistent per url scan results, see {@link Configuration#getScanCache()}.
+ * <p>each url is stored as a segment {@link IndexFile}, together with the url fingerprint - its path, size, last modified time and content hash.
+ * the content hash of a jar is computed from its central directory entries (name, size and crc), without reading the entries,
+ * and of a directory from its files relative path, size and content, so that files rewritten with the same size and last modified time are rescanned.
+ * validating a directory segment therefore reads all of its files, though without parsing them.
+ * <p>segments are keyed by url and by the configured scanners, their results filters and the inputs filter.
+ * only {@link FilterBuilder} inputs and results filters of patterns can be keyed, other predicates disable the cache, see {@link FilterBuilder#isPatternsOnly()}
+ * <p>segments are evicted by {@link #evict()} once more than {@link #SEGMENTS_PER_URL} are cached per url, for example of different scanners,
+ * or once not used for {@link #MAX_AGE_DAYS}
+ */
+final class ScanCache {
+    static final int SEGMENTS_PER_URL = 4;
+    static final int MAX_AGE_DAYS = 30;
+    private static final Pattern SEGMENT_NAME = Pattern.compile("[0-9a-f]{16}-[0-9a-f]{16}\\.bin");
+
+    private final Path dir;
+    private final String configKey;
+
+    private ScanCache(Path dir, String configKey) {
+        this.dir = dir;
+        this.configKey = configKey;
+    }
+
+    /** returns scan cache for the given {@code configuration}, or null if not configured or cannot be keyed */
+    static ScanCache of(Configuration configuration) {
+        Path dir = configuration.getScanCache();
+        Predicate<String> inputsFilter = configuration.getInputsFilter();
+        if (dir == null) return null;
+        if (inputsFilter != null && inputsFilter != ConfigurationBuilder.DEFAULT_INPUTS_FILTER && !isKeyable(inputsFilter)) return null;
+        if (!configuration.getScanners().stream().allMatch(scanner -> !(scanner instanceof Scanners) || isKeyable(((Scanners) scanner).getResultFilter()))) return null;
+        String scanners = configuration.getScanners().stream()
+            .map(scanner -> scanner.getClass().getName() + ":" + scanner.index() + resultFilter(scanner)).sorted().collect(Collectors.joining(","));
+        String filter = inputsFilter instanceof FilterBuilder ? inputsFilter.toString() : "";
+        return new ScanCache(dir, scanners + "|" + filter);
+    }
+
+    /** true if the {@code filter}, if any, is a {@link FilterBuilder} of patterns, which is keyed by its string form */
+    private static boolean isKeyable(Predicate<String> filter) {
+        return filter == null || filter instanceof FilterBuilder && ((FilterBuilder) filter).isPatternsOnly();
+    }
+
+    private static String resultFilter(Scanner scanner) {
+        Predicate<String> resultFilter = scanner instanceof Scanners ? ((Scanners) scanner).getResultFilter() : null;
+        return resultFilter != null ? "[" + resultFilter + "]" : "";
+    }
+
+    /** looks up {@code url}, computing its fingerprint once, and loading its cached segment if not changed since cached */
+    Entry lookup(URL url) {
+        String fingerprint;
+        try {
+            fingerprint = fingerprint(url);
+        } catch (Exception e) {
+            fingerprint = null;
+        }
+        return new Entry(url, fingerprint, fingerprint != null ? load(url, fingerprint) : null);
+    }
+
+    /** returns the cached segment of {@code url}, or null if not cached or cached with a different {@code fingerprint} */
+    private Store load(URL url, String fingerprint) {
+        try {
+            Path segment = segment(url);
+            Path fingerprintFile = fingerprint(segment);
+            if (!Files.exists(segment) || !Files.exists(fingerprintFile)) return null;
+            if (!fingerprint.equals(new String(Files.readAllBytes(fingerprintFile), StandardCharsets.UTF_8))) return null;
+            Files.setLastModifiedTime(segment, FileTime.fromMillis(System.currentTimeMillis())); // last used, see evict
+            return IndexFile.load(segment);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /** stores the {@code storeMap} scanned from the looked up {@code entry} url as its segment, unless it has no fingerprint */
+    void put(Entry entry, Map<String, Map<String, Set<String>>> storeMap) throws IOException {
+        if (entry.fingerprint == null) return;
+        Path segment = segment(entry.url);
+        Files.deleteIfExists(fingerprint(segment));
+        IndexFile.save(new Store(storeMap), segment);
+        Files.write(fingerprint(segment), entry.fingerprint.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * deletes the least recently used segments of each url beyond {@link #SEGMENTS_PER_URL}, and segments not used for {@link #MAX_AGE_DAYS}.
+     * <p>segments which cannot be deleted, for example if in use by another process, are skipped
+     */
+    void evict() throws IOException {
+        long expired = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(MAX_AGE_DAYS);
+        Map<String, List<File>> urlSegments = new HashMap<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            files.map(Path::toFile).filter(file -> SEGMENT_NAME.matcher(file.getName()).matches())
+                .forEach(file -> urlSegments.computeIfAbsent(file.getName().substring(0, file.getName().indexOf('-')), url -> new ArrayList<>()).add(file));
+        }
+        for (List<File> segments : urlSegments.values()) {
+            segments.sort(Comparator.comparingLong(File::lastModified).reversed());
+            for (int i = 0; i < segments.size(); i++) {
+                File segment = segments.get(i);
+                if (i >= SEGMENTS_PER_URL || segment.lastModified() < expired) {
+                    try {
+                        Files.deleteIfExists(fingerprint(segment.toPath()));
+                        Files.deleteIfExists(segment.toPath());
+                    } catch (IOException ignored) {}
+                }
+            }
+        }
+    }
+
+    /** segment file of the {@code url}, named by the url hash and the configuration key hash, so that segments of a url are grouped */
+    private Path segment(URL url) {
+        return dir.resolve(hash(url.toExternalForm()).substring(0, 16) + "-" + hash(configKey).substring(0, 16) + ".bin");
+    }
+
+    private static Path fingerprint(Path segment) {
+        return segment.resolveSibling(segment.getFileName().toString().replace(".bin", ".fingerprint"));
+    }
+
+    /** fingerprint of the {@code url} file or directory, or null if the url is not a local file */
+    private static String fingerprint(URL url) throws IOException {
+        File file = Vfs.getFile(url);
+        if (file == null || !file.exists()) return null;
+        MessageDigest digest = digest();
+        update(digest, file.getAbsolutePath(), file.length(), file.lastModified());
+        if (file.isDirectory()) {
+            Path root = file.toPath();
+            try (Stream<Path> paths = Files.walk(root)) {
+                paths.sorted(Comparator.comparing(Path::toString)).forEach(path -> {
+                    try {
+                        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                        if (attributes.isRegularFile()) {
+                            update(digest, root.relativize(path).toString(), attributes.size(), 0);
+                            updateContent(digest, path);
+                        }
+                    } catch (IOException e) {
+                        throw new ReflectionsException("could not read " + path, e);
+                    }
+                });
+            }
+        } else {
+            try (ZipFile zipFile = new ZipFile(file)) {
+                for (Enumeration<? extends ZipEntry> entries = zipFile.entries(); entries.hasMoreElements(); ) {
+                    ZipEntry entry = entries.nextElement();
+                    update(digest, entry.getName(), entry.getSize(), entry.getCrc());
+                }
+            }
+        }
+        return hex(digest.digest());
+    }
+
+    private static void update(MessageDigest digest, String name, long size, long stamp) {
+        digest.update(name.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        for (int i = 0; i < 8; i++) digest.update((byte) (size >>> (i * 8)));
+        for (int i = 0; i < 8; i++) digest.update((byte) (stamp >>> (i * 8)));
+    }
+
+    private static void updateContent(MessageDigest digest, Path path) throws IOException {
+        byte[] buffer = new byte[8192];
+        try (InputStream inputStream = Files.newInputStream(path)) {
+            for (int n; (n = inputStream.read(buffer)) != -1; ) digest.update(buffer, 0, n);
+        }
+    }
+
+    private static String hash(String s) {
+        return hex(digest().digest(s.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static MessageDigest digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new ReflectionsException("could not create digest", e);
+        }
+    }
+
+    /** url, its fingerprint or null if not a local file, and its cached segment or null if not cached or changed since cached */
+    static final class Entry {
+        final URL url;
+        final String fingerprint;
+        final Store segment;
+
+        Entry(URL url, String fingerprint, Store segment) {
+            this.url = url;
+            this.fingerprint = fingerprint;
+            this.segment = segment;
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,119 @@
+package org.reflections;
+
+import org.reflections.util.VirtualThreads;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * runs scan tasks sequentially, or in parallel on the configured executor.
+ * <ul>
+ *     <li>{@link Configuration#getExecutor()} - the given executor</li>
+ *     <li>{@link Configuration#isVirtualThreads()} - a new virtual thread per task</li>
+ *     <li>{@link Configuration#getParallelism()} - a dedicated {@link ForkJoinPool} of that parallelism, for the duration of the scan</li>
+ *     <li>otherwise the common {@link ForkJoinPool}</li>
+ * </ul>
+ * <p>the calling thread waits for the submitted tasks, and tasks do not wait for each other
+ */
+final class ScanExecutor implements AutoCloseable {
+    private final Executor executor;
+    private final ExecutorService owned;
+    private final int parallelism;
+
+    private ScanExecutor(Executor executor, ExecutorService owned, int parallelism) {
+        this.executor = executor;
+        this.owned = owned;
+        this.parallelism = parallelism;
+    }
+
+    static ScanExecutor of(Configuration configuration) {
+        int parallelism = configuration.getParallelism();
+        if (!configuration.isParallel()) {
+            return new ScanExecutor(null, null, 1);
+        } else if (configuration.getExecutor() != null) {
+            return new ScanExecutor(configuration.getExecutor(), null, parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        } else if (configuration.isVirtualThreads()) {
+            ExecutorService executor = VirtualThreads.newExecutor();
+            return new ScanExecutor(executor, executor, parallelism > 0 ? parallelism : Integer.MAX_VALUE);
+        } else if (parallelism > 0) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            return new ScanExecutor(pool, pool, parallelism);
+        } else {
+            return new ScanExecutor(ForkJoinPool.commonPool(), null, ForkJoinPool.getCommonPoolParallelism());
+        }
+    }
+
+    boolean isParallel() {
+        return executor != null;
+    }
+
+    /** applies {@code function} on each of {@code items} in parallel, and returns the results in order */
+    <T, R> List<R> map(Collection<T> items, Function<? super T, ? extends R> function) {
+        if (executor == null || items.size() <= 1) return items.stream().map(function).collect(Collectors.toList());
+        List<CompletableFuture<R>> futures = new ArrayList<>(items.size());
+        for (T item : items) futures.add(CompletableFuture.supplyAsync(() -> function.apply(item), executor));
+        List<R> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<R> future : futures) results.add(join(future));
+        return results;
+    }
+
+    /** accepts each of {@code items} in parallel */
+    <T> void forEach(Collection<T> items, Consumer<? super T> consumer) {
+        map(items, item -> {
+            consumer.accept(item);
+            return null;
+        });
+    }
+
+    /**
+     * accumulates {@code items} in parallel, like {@link java.util.stream.Stream#collect(Supplier, BiConsumer, BiConsumer)}.
+     * <p>up to parallelism workers poll items in order, each into its own container without locking,
+     * and the containers are then combined pairwise in parallel
+     */
+    <T, A> A collect(Collection<T> items, Supplier<A> supplier, BiConsumer<A, ? super T> accumulator, BinaryOperator<A> combiner) {
+        Queue<T> queue = new ConcurrentLinkedQueue<>(items);
+        int workers = Math.max(1, Math.min(parallelism, items.size()));
+        List<A> containers = map(Collections.nCopies(workers, queue), q -> {
+            A container = supplier.get();
+            for (T item; (item = q.poll()) != null; ) accumulator.accept(container, item);
+            return container;
+        });
+        while (containers.size() > 1) {
+            List<List<A>> pairs = new ArrayList<>();
+            for (int i = 0; i < containers.size(); i += 2) pairs.add(containers.subList(i, Math.min(i + 2, containers.size())));
+            containers = map(pairs, pair -> pair.size() == 1 ? pair.get(0) : combiner.apply(pair.get(0), pair.get(1)));
+        }
+        return containers.get(0);
+    }
+
+    private static <R> R join(CompletableFuture<R> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            if (e.getCause() instanceof Error) throw (Error) e.getCause();
+            throw new ReflectionsException("scan task failed", e.getCause());
+        }
+    }
+
+    /** shuts down the executor if created for this scan */
+    @Override
+    public void close() {
+        if (owned != null) owned.shutdown();
+    }
+}
@@ -0,0 +1,32 @@
+package org.reflections;
+
+import java.net.URL;
+
+/**
+ * listener of scan phases, see {@link Configuration#getScanListener()}.
+ * <p>all methods do nothing by default. if {@link Configuration#isParallel()}, methods are called concurrently and should be thread safe.
+ * <p>see also {@link ScanMetrics}, the aggregated snapshot reachable from {@link Reflections#getScanMetrics()}
+ */
+public interface ScanListener {
+
+    /** the {@code url} was opened as a {@link org.reflections.vfs.Vfs.Dir} in {@code nanos} */
+    default void onOpen(URL url, long nanos) {}
+
+    /** the {@code files} of {@code url} accepted by the inputs filter were listed in {@code nanos} */
+    default void onFiles(URL url, int files, long nanos) {}
+
+    /** the class {@code file} of {@code bytes} length was read and its header parsed in {@code nanos} */
+    default void onParse(String file, int bytes, long nanos) {}
+
+    /** the scanner of {@code index} emitted {@code entries} key/values for a single file in {@code nanos} */
+    default void onScan(String index, int entries, long nanos) {}
+
+    /** store maps were merged in {@code nanos} */
+    default void onMerge(long nanos) {}
+
+    /** super types of {@code keys} unscanned types were expanded in {@code nanos}, see {@link Reflections#expandSuperTypes(java.util.Map, java.util.Map)} */
+    default void onExpandSuperTypes(int keys, long nanos) {}
+
+    /** scanning {@code source} (url or file) failed, and was skipped */
+    default void onFailure(String source, Throwable e) {}
+}
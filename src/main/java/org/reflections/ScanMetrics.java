@@ -0,0 +1,150 @@
+package org.reflections;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * scan metrics aggregated from {@link ScanListener} events, see {@link Reflections#getScanMetrics()}.
+ * <p>per url and per scanner timings, bytes read, classes parsed, entries emitted and failures.
+ * all timings are in nanos, and are summed over threads if {@link Configuration#isParallel()}
+ * <pre>{@code
+ * ScanMetrics metrics = reflections.getScanMetrics();
+ * if (metrics.getScanNanos() > threshold) alert(metrics);
+ * }</pre>
+ */
+public final class ScanMetrics implements ScanListener {
+    /** max number of failures retained in {@link #getFailures()} */
+    public static final int MAX_FAILURES = 100;
+
+    private final ScanListener listener;
+    private volatile long scanNanos;
+    private final Map<String, LongAdder> openNanos = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> files = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> filesNanos = new ConcurrentHashMap<>();
+    private final LongAdder classesParsed = new LongAdder();
+    private final LongAdder bytesRead = new LongAdder();
+    private final LongAdder parseNanos = new LongAdder();
+    private final Map<String, LongAdder> entries = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> scannerNanos = new ConcurrentHashMap<>();
+    private final LongAdder mergeNanos = new LongAdder();
+    private final LongAdder expandSuperTypesNanos = new LongAdder();
+    private final LongAdder failureCount = new LongAdder();
+    private final List<String> failures = Collections.synchronizedList(new ArrayList<>());
+
+    /** creates scan metrics, forwarding all events to the given {@code listener}, if not null */
+    public ScanMetrics(ScanListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public void onOpen(URL url, long nanos) {
+        add(openNanos, url.toExternalForm(), nanos);
+        if (listener != null) listener.onOpen(url, nanos);
+    }
+
+    @Override
+    public void onFiles(URL url, int files, long nanos) {
+        add(this.files, url.toExternalForm(), files);
+        add(filesNanos, url.toExternalForm(), nanos);
+        if (listener != null) listener.onFiles(url, files, nanos);
+    }
+
+    @Override
+    public void onParse(String file, int bytes, long nanos) {
+        classesParsed.increment();
+        bytesRead.add(bytes);
+        parseNanos.add(nanos);
+        if (listener != null) listener.onParse(file, bytes, nanos);
+    }
+
+    @Override
+    public void onScan(String index, int entries, long nanos) {
+        add(this.entries, index, entries);
+        add(scannerNanos, index, nanos);
+        if (listener != null) listener.onScan(index, entries, nanos);
+    }
+
+    @Override
+    public void onMerge(long nanos) {
+        mergeNanos.add(nanos);
+        if (listener != null) listener.onMerge(nanos);
+    }
+
+    @Override
+    public void onExpandSuperTypes(int keys, long nanos) {
+        expandSuperTypesNanos.add(nanos);
+        if (listener != null) listener.onExpandSuperTypes(keys, nanos);
+    }
+
+    @Override
+    public void onFailure(String source, Throwable e) {
+        failureCount.increment();
+        if (failures.size() < MAX_FAILURES) failures.add(source + ": " + e);
+        if (listener != null) listener.onFailure(source, e);
+    }
+
+    void setScanNanos(long scanNanos) {
+        this.scanNanos = scanNanos;
+    }
+
+    /** wall time of the whole scan, including merge, expand super types and store creation */
+    public long getScanNanos() { return scanNanos; }
+
+    /** time to open each url */
+    public Map<String, Long> getOpenNanos() { return snapshot(openNanos); }
+
+    /** number of files accepted by the inputs filter, per url */
+    public Map<String, Long> getFiles() { return snapshot(files); }
+
+    /** time to list and filter the files of each url */
+    public Map<String, Long> getFilesNanos() { return snapshot(filesNanos); }
+
+    public long getClassesParsed() { return classesParsed.sum(); }
+
+    public long getBytesRead() { return bytesRead.sum(); }
+
+    /** time to read class files and parse their headers */
+    public long getParseNanos() { return parseNanos.sum(); }
+
+    /** number of key/values emitted per scanner index */
+    public Map<String, Long> getEntries() { return snapshot(entries); }
+
+    /** time spent in each scanner index */
+    public Map<String, Long> getScannerNanos() { return snapshot(scannerNanos); }
+
+    public long getMergeNanos() { return mergeNanos.sum(); }
+
+    public long getExpandSuperTypesNanos() { return expandSuperTypesNanos.sum(); }
+
+    public long getFailureCount() { return failureCount.sum(); }
+
+    /** first {@link #MAX_FAILURES} failures, as {@code source: exception} */
+    public List<String> getFailures() {
+        synchronized (failures) {
+            return new ArrayList<>(failures);
+        }
+    }
+
+    private static void add(Map<String, LongAdder> map, String key, long value) {
+        map.computeIfAbsent(key, k -> new LongAdder()).add(value);
+    }
+
+    private static Map<String, Long> snapshot(Map<String, LongAdder> map) {
+        Map<String, Long> snapshot = new TreeMap<>();
+        map.forEach((key, value) -> snapshot.put(key, value.sum()));
+        return snapshot;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("scanned %d urls, %d classes, %d bytes in %d ms (parse %d ms, merge %d ms, expand super types %d ms), entries %s, failures %d",
+            openNanos.size(), getClassesParsed(), getBytesRead(), scanNanos / 1000000, getParseNanos() / 1000000,
+            getMergeNanos() / 1000000, getExpandSuperTypesNanos() / 1000000, getEntries(), getFailureCount());
+    }
+}
@@ -0,0 +1,208 @@
+package org.reflections;
+
+import org.reflections.util.VirtualThreads;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * staged scan pipeline settings, in which files are read, parsed and indexed by separate threads,
+ * so that file I/O stalls and parsing overlap, for example on a cold page cache or network file systems.
+ * <ul>
+ *     <li>readers - read class file bytes from {@link org.reflections.vfs.Vfs.File}</li>
+ *     <li>parsers - run the scanners on the read bytes</li>
+ *     <li>indexers - add the scanned key/values into the store, each indexer into its own store map merged at the end</li>
+ * </ul>
+ * <p>stages are connected by bounded queues of {@code queueSize} files, so that readers block once parsers fall behind, and bytes read ahead are bounded.
+ * stage threads are created per scan, readers are virtual threads if {@link Configuration#isVirtualThreads()}
+ * <pre>{@code new ConfigurationBuilder().setScanPipeline(ScanPipeline.of(8, 4))}</pre>
+ * <p>see {@link Configuration#getScanPipeline()}
+ */
+public final class ScanPipeline {
+    public static final int DEFAULT_QUEUE_SIZE = 1024;
+
+    private static final Object END = new Object();
+
+    private final int readers;
+    private final int parsers;
+    private final int indexers;
+    private final int queueSize;
+
+    private ScanPipeline(int readers, int parsers, int indexers, int queueSize) {
+        if (readers < 1 || parsers < 1 || indexers < 1 || queueSize < 1) {
+            throw new ReflectionsException("scan pipeline threads and queue size must be positive, readers " + readers +
+                ", parsers " + parsers + ", indexers " + indexers + ", queue size " + queueSize);
+        }
+        this.readers = readers;
+        this.parsers = parsers;
+        this.indexers = indexers;
+        this.queueSize = queueSize;
+    }
+
+    /** pipeline of the given number of reader and parser threads, a single indexer thread and {@link #DEFAULT_QUEUE_SIZE} */
+    public static ScanPipeline of(int readers, int parsers) {
+        return new ScanPipeline(readers, parsers, 1, DEFAULT_QUEUE_SIZE);
+    }
+
+    /** pipeline with the given number of indexer threads */
+    public ScanPipeline withIndexers(int indexers) {
+        return new ScanPipeline(readers, parsers, indexers, queueSize);
+    }
+
+    /** pipeline with the given capacity of each queue between stages, in number of files */
+    public ScanPipeline withQueueSize(int queueSize) {
+        return new ScanPipeline(readers, parsers, indexers, queueSize);
+    }
+
+    public int getReaders() {
+        return readers;
+    }
+
+    public int getParsers() {
+        return parsers;
+    }
+
+    public int getIndexers() {
+        return indexers;
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    /**
+     * runs {@code items} through the {@code read}, {@code parse} and {@code index} stages, and returns the combined indexer containers.
+     * <p>null results of read and parse are skipped. failures of single items do not stop the pipeline, and the first is thrown once it is done
+     */
+    <T, B, E, A> A run(Collection<T> items, boolean virtualReaders,
+                       Function<? super T, ? extends B> read, Function<? super B, ? extends E> parse,
+                       Supplier<A> supplier, BiConsumer<A, ? super E> index, BinaryOperator<A> combiner) {
+        Queue<T> input = new ConcurrentLinkedQueue<>(items);
+        BlockingQueue<Object> readQueue = new ArrayBlockingQueue<>(queueSize), parseQueue = new ArrayBlockingQueue<>(queueSize);
+        AtomicInteger activeReaders = new AtomicInteger(readers), activeParsers = new AtomicInteger(parsers);
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+        ExecutorService readerThreads = virtualReaders ? VirtualThreads.newExecutor() : Executors.newFixedThreadPool(readers, threads("reader"));
+        ExecutorService parserThreads = Executors.newFixedThreadPool(parsers, threads("parser"));
+        ExecutorService indexerThreads = Executors.newFixedThreadPool(indexers, threads("indexer"));
+        try {
+            for (int i = 0; i < readers; i++) {
+                readerThreads.execute(() -> {
+                    try {
+                        for (T item; (item = input.poll()) != null; ) {
+                            B bytes = apply(read, item, failure);
+                            if (bytes != null) put(readQueue, bytes);
+                        }
+                    } finally {
+                        if (activeReaders.decrementAndGet() == 0) for (int p = 0; p < parsers; p++) put(readQueue, END);
+                    }
+                });
+            }
+            for (int i = 0; i < parsers; i++) {
+                parserThreads.execute(() -> {
+                    try {
+                        for (Object bytes; (bytes = take(readQueue)) != END; ) {
+                            @SuppressWarnings("unchecked") E parsed = apply(parse, (B) bytes, failure);
+                            if (parsed != null) put(parseQueue, parsed);
+                        }
+                    } finally {
+                        if (activeParsers.decrementAndGet() == 0) for (int x = 0; x < indexers; x++) put(parseQueue, END);
+                    }
+                });
+            }
+            List<Future<A>> containers = new ArrayList<>(indexers);
+            for (int i = 0; i < indexers; i++) {
+                containers.add(indexerThreads.submit(() -> {
+                    A container = supplier.get();
+                    for (Object parsed; (parsed = take(parseQueue)) != END; ) {
+                        @SuppressWarnings("unchecked") E entries = (E) parsed;
+                        apply(e -> { index.accept(container, e); return null; }, entries, failure);
+                    }
+                    return container;
+                }));
+            }
+
+            A result = null;
+            for (Future<A> container : containers) {
+                A next = get(container);
+                result = result == null ? next : combiner.apply(result, next);
+            }
+            if (failure.get() != null) throw failure.get();
+            return result;
+        } finally {
+            readerThreads.shutdownNow();
+            parserThreads.shutdownNow();
+            indexerThreads.shutdownNow();
+        }
+    }
+
+    private static <T, R> R apply(Function<? super T, ? extends R> function, T item, AtomicReference<RuntimeException> failure) {
+        try {
+            return function.apply(item);
+        } catch (RuntimeException e) {
+            failure.compareAndSet(null, e);
+            return null;
+        }
+    }
+
+    private static void put(BlockingQueue<Object> queue, Object element) {
+        try {
+            queue.put(element);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ReflectionsException("scan pipeline interrupted", e);
+        }
+    }
+
+    private static Object take(BlockingQueue<Object> queue) {
+        try {
+            return queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ReflectionsException("scan pipeline interrupted", e);
+        }
+    }
+
+    private static <A> A get(Future<A> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ReflectionsException("scan pipeline interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            if (e.getCause() instanceof Error) throw (Error) e.getCause();
+            throw new ReflectionsException("scan pipeline failed", e.getCause());
+        }
+    }
+
+    private static ThreadFactory threads(String stage) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "reflections-" + stage + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "ScanPipeline{readers=" + readers + ", parsers=" + parsers + ", indexers=" + indexers + ", queueSize=" + queueSize + "}";
+    }
+}
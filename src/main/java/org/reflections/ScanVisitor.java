@@ -0,0 +1,13 @@
+package org.reflections;
+
+/**
+ * visitor of scanned key/values, see {@link Reflections#visit(Configuration, ScanVisitor)}
+ * <pre>{@code Reflections.visit(configuration, (index, key, value) -> ...)}</pre>
+ */
+@FunctionalInterface
+public interface ScanVisitor {
+
+    /** visit the {@code key}/{@code value} scanned by the scanner of the given {@code index}
+     * @return true to continue scanning, false to stop */
+    boolean visit(String index, String key, String value);
+}
@@ -1,10 +1,159 @@
 package org.reflections;
 
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 public class Store extends HashMap<String, Map<String, Set<String>>> {
     public Store() {}
     public Store(Map<String, Map<String, Set<String>>> storeMap) { super(storeMap); }
+
+    /** creates a store of immutable {@link CompactIndex} indices, sharing a single sorted names table.
+     * <p>queries such as {@link org.reflections.util.QueryBuilder#get(String)} work the same as on a regular store */
+    public static Store compact(Map<String, Map<String, Set<String>>> storeMap) {
+        String[] names = storeMap.values().stream()
+            .flatMap(index -> index.entrySet().stream())
+            .flatMap(entry -> Stream.concat(Stream.of(entry.getKey()), entry.getValue().stream()))
+            .distinct().sorted().toArray(String[]::new);
+        Store store = new Store();
+        storeMap.forEach((index, keys) -> store.put(index, CompactIndex.of(names, keys)));
+        return store;
+    }
+
+    /** creates an unmodifiable store of the given {@code storeMap}, such that neither the store, its indices nor their values can be changed.
+     * <p>used once query results are cached, so that cached results cannot become stale, see {@link Configuration#getQueryCacheSize()} */
+    public static Store unmodifiable(Map<String, Map<String, Set<String>>> storeMap) {
+        Map<String, Map<String, Set<String>>> indices = new HashMap<>();
+        storeMap.forEach((index, keys) -> indices.put(index, keys instanceof CompactIndex ? keys : new UnmodifiableIndex(keys)));
+        return new UnmodifiableStore(indices);
+    }
+
+    /** name of the transitive closure index of the given {@code index}, see {@link #closure(Map)} */
+    public static String closureIndex(String index) {
+        return index + "Closure";
+    }
+
+    /**
+     * creates the transitive closure of the given {@code index}, mapping each key to all of its transitive values.
+     * <p>closures are computed once per key in reverse topological order, by merging the sorted ids of the direct values closures,
+     * so that {@link org.reflections.util.QueryBuilder#getAll(java.util.Collection)} can read the result without traversal.
+     * keys in a cycle, if any, are traversed separately
+     */
+    public static CompactIndex closure(Map<String, Set<String>> index) {
+        String[] names = index.entrySet().stream()
+            .flatMap(entry -> Stream.concat(Stream.of(entry.getKey()), entry.getValue().stream()))
+            .distinct().sorted().toArray(String[]::new);
+        int[][] children = new int[names.length][];
+        int[] remaining = new int[names.length];
+        List<List<Integer>> parents = new ArrayList<>(names.length);
+        for (int id = 0; id < names.length; id++) {
+            Set<String> values = index.getOrDefault(names[id], Collections.emptySet());
+            children[id] = values.stream().mapToInt(value -> Arrays.binarySearch(names, value)).sorted().toArray();
+            remaining[id] = children[id].length;
+            parents.add(new ArrayList<>());
+        }
+        for (int id = 0; id < names.length; id++) for (int child : children[id]) parents.get(child).add(id);
+
+        int[][] closure = new int[names.length][];
+        Deque<Integer> ready = new ArrayDeque<>();
+        for (int id = 0; id < names.length; id++) if (remaining[id] == 0) ready.add(id);
+        while (!ready.isEmpty()) {
+            int id = ready.poll();
+            closure[id] = IntStream.concat(IntStream.of(children[id]),
+                IntStream.of(children[id]).flatMap(child -> IntStream.of(closure[child]))).sorted().distinct().toArray();
+            for (int parent : parents.get(id)) if (--remaining[parent] == 0) ready.add(parent);
+        }
+        for (int id = 0; id < names.length; id++) {
+            if (closure[id] == null) { // cycle
+                Set<Integer> visited = new TreeSet<>();
+                Deque<Integer> work = new ArrayDeque<>();
+                work.add(id);
+                while (!work.isEmpty()) for (int child : children[work.poll()]) if (visited.add(child)) work.add(child);
+                closure[id] = visited.stream().mapToInt(Integer::intValue).toArray();
+            }
+        }
+
+        int[] keys = IntStream.range(0, names.length).filter(id -> closure[id].length != 0).toArray();
+        int[] offsets = new int[keys.length + 1];
+        for (int row = 0; row < keys.length; row++) offsets[row + 1] = offsets[row] + closure[keys[row]].length;
+        int[] values = new int[offsets[keys.length]];
+        for (int row = 0; row < keys.length; row++) System.arraycopy(closure[keys[row]], 0, values, offsets[row], closure[keys[row]].length);
+        return new CompactIndex(names, keys, offsets, values);
+    }
+
+    private static final class UnmodifiableStore extends Store {
+        UnmodifiableStore(Map<String, Map<String, Set<String>>> storeMap) { super(storeMap); }
+
+        @Override public Map<String, Set<String>> put(String key, Map<String, Set<String>> value) { throw unmodifiable(); }
+        @Override public void putAll(Map<? extends String, ? extends Map<String, Set<String>>> m) { throw unmodifiable(); }
+        @Override public Map<String, Set<String>> putIfAbsent(String key, Map<String, Set<String>> value) { throw unmodifiable(); }
+        @Override public Map<String, Set<String>> remove(Object key) { throw unmodifiable(); }
+        @Override public boolean remove(Object key, Object value) { throw unmodifiable(); }
+        @Override public void clear() { throw unmodifiable(); }
+        @Override public Map<String, Set<String>> replace(String key, Map<String, Set<String>> value) { throw unmodifiable(); }
+        @Override public boolean replace(String key, Map<String, Set<String>> oldValue, Map<String, Set<String>> newValue) { throw unmodifiable(); }
+        @Override public void replaceAll(BiFunction<? super String, ? super Map<String, Set<String>>, ? extends Map<String, Set<String>>> function) { throw unmodifiable(); }
+        @Override public Map<String, Set<String>> computeIfAbsent(String key, Function<? super String, ? extends Map<String, Set<String>>> mappingFunction) { throw unmodifiable(); }
+        @Override public Map<String, Set<String>> computeIfPresent(String key, BiFunction<? super String, ? super Map<String, Set<String>>, ? extends Map<String, Set<String>>> remappingFunction) { throw unmodifiable(); }
+        @Override public Map<String, Set<String>> compute(String key, BiFunction<? super String, ? super Map<String, Set<String>>, ? extends Map<String, Set<String>>> remappingFunction) { throw unmodifiable(); }
+        @Override public Map<String, Set<String>> merge(String key, Map<String, Set<String>> value, BiFunction<? super Map<String, Set<String>>, ? super Map<String, Set<String>>, ? extends Map<String, Set<String>>> remappingFunction) { throw unmodifiable(); }
+        @Override public Set<String> keySet() { return Collections.unmodifiableSet(super.keySet()); }
+        @Override public Collection<Map<String, Set<String>>> values() { return Collections.unmodifiableCollection(super.values()); }
+        @Override public Set<Map.Entry<String, Map<String, Set<String>>>> entrySet() { return Collections.unmodifiableSet(super.entrySet()); }
+
+        private static UnsupportedOperationException unmodifiable() {
+            return new UnsupportedOperationException("store is unmodifiable once query results are cached");
+        }
+    }
+
+    /** unmodifiable view of an index, and of its values */
+    private static final class UnmodifiableIndex extends AbstractMap<String, Set<String>> implements Serializable {
+        private final Map<String, Set<String>> index;
+
+        UnmodifiableIndex(Map<String, Set<String>> index) { this.index = index; }
+
+        @Override public Set<String> get(Object key) {
+            Set<String> values = index.get(key);
+            return values != null ? Collections.unmodifiableSet(values) : null;
+        }
+        @Override public Set<String> getOrDefault(Object key, Set<String> defaultValue) {
+            Set<String> values = get(key);
+            return values != null ? values : defaultValue;
+        }
+        @Override public boolean containsKey(Object key) { return index.containsKey(key); }
+        @Override public int size() { return index.size(); }
+        @Override public Set<String> keySet() { return Collections.unmodifiableSet(index.keySet()); }
+
+        @Override public Set<Entry<String, Set<String>>> entrySet() {
+            return new AbstractSet<Entry<String, Set<String>>>() {
+                @Override public int size() { return index.size(); }
+                @Override public Iterator<Entry<String, Set<String>>> iterator() {
+                    Iterator<Entry<String, Set<String>>> entries = index.entrySet().iterator();
+                    return new Iterator<Entry<String, Set<String>>>() {
+                        @Override public boolean hasNext() { return entries.hasNext(); }
+                        @Override public Entry<String, Set<String>> next() {
+                            Entry<String, Set<String>> entry = entries.next();
+                            return new SimpleImmutableEntry<>(entry.getKey(), Collections.unmodifiableSet(entry.getValue()));
+                        }
+                    };
+                }
+            };
+        }
+    }
 }
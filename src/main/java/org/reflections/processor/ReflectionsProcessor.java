@@ -0,0 +1,137 @@
+package org.reflections.processor;
+
+import org.reflections.IndexFile;
+import org.reflections.Store;
+import org.reflections.scanners.Scanners;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * annotation processor creating the compile time index {@link IndexFile#RESOURCE} of a module,
+ * with the {@link Scanners#SubTypes} and {@link Scanners#TypesAnnotated} of all its declared types.
+ * <p>at runtime, urls containing this resource are loaded from the index instead of scanning their class files,
+ * if all configured scanners are indexed in it.
+ * <p>types are collected over all processing rounds, and the index is written in the last round.
+ * on incremental compilation, the previous index is merged, except for types recompiled or no longer found.
+ * <p>note that anonymous and local classes are not visible to annotation processors, and therefore not indexed,
+ * in which case the index is not used and the url is scanned, see {@link org.reflections.Reflections}.
+ * as in class files, the super class of interfaces is {@code java.lang.Object}, so that all indexed types are values of {@code SubTypes}
+ * <p>the processor is not registered as a service, use it explicitly, for example {@code javac -processor org.reflections.processor.ReflectionsProcessor}
+ * or maven compiler plugin {@code <annotationProcessors>}
+ */
+@SupportedAnnotationTypes("*")
+public class ReflectionsProcessor extends AbstractProcessor {
+    private final Map<String, Map<String, Set<String>>> storeMap = new HashMap<>();
+    private final Set<String> types = new HashSet<>();
+
+    public ReflectionsProcessor() {
+        storeMap.put(Scanners.SubTypes.index(), new HashMap<>());
+        storeMap.put(Scanners.TypesAnnotated.index(), new HashMap<>());
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getRootElements()) {
+            if (element instanceof TypeElement) collect((TypeElement) element);
+        }
+        if (roundEnv.processingOver()) {
+            mergePrevious();
+            write();
+        }
+        return false;
+    }
+
+    private void collect(TypeElement type) {
+        Elements elements = processingEnv.getElementUtils();
+        String name = elements.getBinaryName(type).toString();
+        types.add(name);
+
+        put(Scanners.SubTypes, type.getKind().isInterface() ? Object.class.getName() : typeName(type.getSuperclass()), name);
+        for (TypeMirror anInterface : type.getInterfaces()) put(Scanners.SubTypes, typeName(anInterface), name);
+
+        for (AnnotationMirror annotation : type.getAnnotationMirrors()) {
+            Element annotationType = annotation.getAnnotationType().asElement();
+            Retention retention = annotationType.getAnnotation(Retention.class);
+            if (retention == null || retention.value() != RetentionPolicy.SOURCE) {
+                put(Scanners.TypesAnnotated, elements.getBinaryName((TypeElement) annotationType).toString(), name);
+            }
+        }
+
+        for (Element enclosed : type.getEnclosedElements()) {
+            if (enclosed instanceof TypeElement) collect((TypeElement) enclosed);
+        }
+    }
+
+    private String typeName(TypeMirror type) {
+        return type.getKind() == TypeKind.DECLARED ?
+            processingEnv.getElementUtils().getBinaryName((TypeElement) ((DeclaredType) type).asElement()).toString() : null;
+    }
+
+    private void put(Scanners scanner, String key, String value) {
+        if (key != null) storeMap.get(scanner.index()).computeIfAbsent(key, k -> new HashSet<>()).add(value);
+    }
+
+    /** merge previous index of incremental compilation, skipping types compiled now or not found anymore */
+    private void mergePrevious() {
+        Store previous;
+        try {
+            FileObject resource = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", IndexFile.RESOURCE);
+            try (InputStream inputStream = resource.openInputStream()) {
+                previous = IndexFile.read(inputStream, resource.toUri().toString());
+            }
+        } catch (Exception e) {
+            return; // no previous index
+        }
+        Elements elements = processingEnv.getElementUtils();
+        Map<String, Boolean> exists = new HashMap<>();
+        previous.forEach((index, keys) -> {
+            Map<String, Set<String>> into = storeMap.get(index);
+            if (into == null) return;
+            keys.forEach((key, values) -> {
+                for (String value : values) {
+                    if (!types.contains(value) && exists.computeIfAbsent(value, v -> elements.getTypeElement(v.replace('$', '.')) != null)) {
+                        into.computeIfAbsent(key, k -> new HashSet<>()).add(value);
+                    }
+                }
+            });
+        });
+    }
+
+    private void write() {
+        try {
+            FileObject resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", IndexFile.RESOURCE);
+            try (OutputStream outputStream = resource.openOutputStream()) {
+                IndexFile.write(new Store(storeMap), outputStream);
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "could not write " + IndexFile.RESOURCE + ": " + e);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package org.reflections.scanners;
+
+import javassist.bytecode.AnnotationsAttribute;
+import javassist.bytecode.ClassFile;
+import org.reflections.ReflectionsException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * the class level metadata of a class file - name, super class, interfaces and annotations.
+ * <p>use {@link #read(byte[], int)} in order to parse it directly from class file bytes, in a single pass over the constant pool,
+ * without creating a javassist {@link ClassFile} (and its constant pool, fields, methods and attributes)
+ */
+public final class ClassHeader {
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final int ACC_INTERFACE = 0x0200;
+
+    private final String name;
+    private final String superclass;
+    private final String[] interfaces;
+    private final List<String> annotations;
+    private final int accessFlags;
+
+    public ClassHeader(String name, String superclass, String[] interfaces, List<String> annotations, int accessFlags) {
+        this.name = name;
+        this.superclass = superclass;
+        this.interfaces = interfaces;
+        this.annotations = annotations;
+        this.accessFlags = accessFlags;
+    }
+
+    /** fully qualified class name */
+    public String getName() { return name; }
+
+    /** fully qualified super class name, or null for {@code java.lang.Object} and module-info */
+    public String getSuperclass() { return superclass; }
+
+    /** fully qualified names of directly implemented interfaces */
+    public String[] getInterfaces() { return interfaces; }
+
+    /** fully qualified names of the class annotations, both runtime visible and invisible */
+    public List<String> getAnnotations() { return annotations; }
+
+    public int getAccessFlags() { return accessFlags; }
+
+    public boolean isInterface() { return (accessFlags & ACC_INTERFACE) != 0; }
+
+    @Override
+    public String toString() { return name; }
+
+    /** creates class header from the given javassist {@code classFile} */
+    public static ClassHeader of(ClassFile classFile) {
+        List<String> annotations = new ArrayList<>();
+        for (String tag : Arrays.asList(AnnotationsAttribute.visibleTag, AnnotationsAttribute.invisibleTag)) {
+            AnnotationsAttribute attribute = (AnnotationsAttribute) classFile.getAttribute(tag);
+            if (attribute != null) {
+                for (javassist.bytecode.annotation.Annotation annotation : attribute.getAnnotations()) {
+                    annotations.add(annotation.getTypeName());
+                }
+            }
+        }
+        return new ClassHeader(classFile.getName(), classFile.getSuperclass(), classFile.getInterfaces(),
+            annotations, classFile.getAccessFlags());
+    }
+
+    /** parses the class header from the first {@code length} bytes of the class file {@code bytes} */
+    public static ClassHeader read(byte[] bytes, int length) {
+        try {
+            return new Reader(bytes, length).read();
+        } catch (IndexOutOfBoundsException e) {
+            throw new ReflectionsException("truncated class file", e);
+        }
+    }
+
+    /** single pass class file reader, see the jvm spec, chapter 4 */
+    private static final class Reader {
+        private final byte[] b;
+        private final int length;
+        private int[] cp;
+
+        Reader(byte[] bytes, int length) {
+            this.b = bytes;
+            this.length = length;
+        }
+
+        ClassHeader read() {
+            if (length < 10 || s4(0) != MAGIC) throw new ReflectionsException("not a class file");
+            int count = u2(8);
+            cp = new int[count];
+            int p = 10;
+            for (int i = 1; i < count; i++) {
+                cp[i] = p + 1;
+                int tag = b[p] & 0xff;
+                switch (tag) {
+                    case 1: p += 3 + u2(p + 1); break;                       // Utf8
+                    case 7: case 8: case 16: case 19: case 20: p += 3; break; // Class, String, MethodType, Module, Package
+                    case 15: p += 4; break;                                    // MethodHandle
+                    case 3: case 4: case 9: case 10: case 11: case 12: case 17: case 18: p += 5; break;
+                    case 5: case 6: p += 9; i++; break;                        // Long, Double take two slots
+                    default: throw new ReflectionsException("unknown constant pool tag " + tag + " at " + p);
+                }
+            }
+
+            int accessFlags = u2(p);
+            String name = className(u2(p + 2));
+            String superclass = className(u2(p + 4));
+            int interfacesCount = u2(p + 6);
+            p += 8;
+            String[] interfaces = new String[interfacesCount];
+            for (int i = 0; i < interfacesCount; i++, p += 2) interfaces[i] = className(u2(p));
+
+            p = skipMembers(p); // fields
+            p = skipMembers(p); // methods
+
+            List<String> annotations = Collections.emptyList();
+            int attributesCount = u2(p);
+            p += 2;
+            for (int i = 0; i < attributesCount; i++) {
+                int attributeLength = s4(p + 2);
+                if (isUtf8(u2(p), AnnotationsAttribute.visibleTag) || isUtf8(u2(p), AnnotationsAttribute.invisibleTag)) {
+                    if (annotations.isEmpty()) annotations = new ArrayList<>();
+                    readAnnotationTypes(p + 6, annotations);
+                }
+                p += 6 + attributeLength;
+            }
+            return new ClassHeader(name, superclass, interfaces, annotations, accessFlags);
+        }
+
+        private int skipMembers(int p) {
+            int membersCount = u2(p);
+            p += 2;
+            for (int i = 0; i < membersCount; i++) {
+                int attributesCount = u2(p + 6);
+                p += 8;
+                for (int j = 0; j < attributesCount; j++) p += 6 + s4(p + 2);
+            }
+            return p;
+        }
+
+        private void readAnnotationTypes(int p, List<String> annotations) {
+            int count = u2(p);
+            p += 2;
+            for (int i = 0; i < count; i++) {
+                annotations.add(descriptorName(u2(p)));
+                p = skipAnnotation(p);
+            }
+        }
+
+        private int skipAnnotation(int p) {
+            int pairs = u2(p + 2);
+            p += 4;
+            for (int i = 0; i < pairs; i++) p = skipElementValue(p + 2);
+            return p;
+        }
+
+        private int skipElementValue(int p) {
+            switch (b[p]) {
+                case 'e': return p + 5;
+                case '@': return skipAnnotation(p + 1);
+                case '[':
+                    int count = u2(p + 1);
+                    p += 3;
+                    for (int i = 0; i < count; i++) p = skipElementValue(p);
+                    return p;
+                default: return p + 3; // const_value_index or class_info_index
+            }
+        }
+
+        /** name of constant pool Class entry, as fully qualified name */
+        private String className(int index) {
+            if (index == 0) return null;
+            int utf8 = cp[u2(cp[index])];
+            return utf8(utf8 + 2, u2(utf8));
+        }
+
+        /** name of constant pool field descriptor {@code Lcom/a/B;} as fully qualified name */
+        private String descriptorName(int index) {
+            int utf8 = cp[index];
+            int len = u2(utf8);
+            return b[utf8 + 2] == 'L' && len > 2 ? utf8(utf8 + 3, len - 2) : utf8(utf8 + 2, len);
+        }
+
+        private boolean isUtf8(int index, String ascii) {
+            int utf8 = cp[index];
+            if (u2(utf8) != ascii.length()) return false;
+            for (int i = 0; i < ascii.length(); i++) {
+                if (b[utf8 + 2 + i] != ascii.charAt(i)) return false;
+            }
+            return true;
+        }
+
+        /** decodes modified utf8, replacing internal name separators {@code '/'} with {@code '.'} */
+        private String utf8(int p, int len) {
+            char[] chars = new char[len];
+            int n = 0;
+            for (int end = p + len; p < end; ) {
+                int c = b[p++] & 0xff;
+                if (c >= 0x80) {
+                    if ((c & 0xe0) == 0xc0) {
+                        c = ((c & 0x1f) << 6) | (b[p++] & 0x3f);
+                    } else {
+                        c = ((c & 0x0f) << 12) | ((b[p++] & 0x3f) << 6) | (b[p++] & 0x3f);
+                    }
+                }
+                chars[n++] = c == '/' ? '.' : (char) c;
+            }
+            return new String(chars, 0, n);
+        }
+
+        private int u2(int p) {
+            if (p + 2 > length) throw new IndexOutOfBoundsException(String.valueOf(p));
+            return ((b[p] & 0xff) << 8) | (b[p + 1] & 0xff);
+        }
+
+        private int s4(int p) {
+            if (p + 4 > length) throw new IndexOutOfBoundsException(String.valueOf(p));
+            return ((b[p] & 0xff) << 24) | ((b[p + 1] & 0xff) << 16) | ((b[p + 2] & 0xff) << 8) | (b[p + 3] & 0xff);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package org.reflections.scanners;
+
+/**
+ * receiver of scanned key/values, see {@link Scanner#scan(ClassHeader, EntrySink)}
+ * <pre>{@code scanner.scan(header, (key, value) -> index.computeIfAbsent(key, k -> new HashSet<>()).add(value))}</pre>
+ */
+@FunctionalInterface
+public interface EntrySink {
+
+    /** put the scanned {@code key}/{@code value}. null keys are ignored */
+    void put(String key, String value);
+}
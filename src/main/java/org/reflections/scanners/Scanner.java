@@ -14,6 +14,23 @@ public interface Scanner {
     /** scan the given {@code classFile} and produces list of {@link Map.Entry} key/values */
     List<Map.Entry<String, String>> scan(ClassFile classFile);
 
+    /** scan the given class {@code header} and produces list of {@link Map.Entry} key/values
+     * <p>returns null by default, in which case {@link #scan(ClassFile)} is used instead */
+    default List<Map.Entry<String, String>> scan(ClassHeader header) {
+        return null;
+    }
+
+    /** scan the given class {@code header} and puts key/values into {@code sink}, without creating {@link Map.Entry} lists
+     * <p>by default adapts {@link #scan(ClassHeader)}, and returns false if it is not supported,
+     * in which case {@link #scan(ClassFile)} is used instead
+     * @return true if the header was scanned */
+    default boolean scan(ClassHeader header, EntrySink sink) {
+        List<Map.Entry<String, String>> entries = scan(header);
+        if (entries == null) return false;
+        for (Map.Entry<String, String> entry : entries) sink.put(entry.getKey(), entry.getValue());
+        return true;
+    }
+
     /** scan the given {@code file} and produces list of {@link Map.Entry} key/values */
     default List<Map.Entry<String, String>> scan(Vfs.File file) {
         return null;
@@ -7,11 +7,9 @@ import org.reflections.util.QueryBuilder;
 
 import java.lang.annotation.Inherited;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 
 
@@ -35,26 +33,32 @@ public enum Scanners implements Scanner, QueryBuilder, NameHelper {
         { filterResultsBy(new FilterBuilder().excludePattern("java\\.lang\\.Object")); }
 
         @Override
-        public void scan(ClassFile classFile, List<Map.Entry<String, String>> entries) {
-            entries.add(entry(classFile.getSuperclass(), classFile.getName()));
-            entries.addAll(entries(Arrays.asList(classFile.getInterfaces()), classFile.getName()));
+        public boolean scan(ClassHeader header, EntrySink sink) {
+            put(sink, header.getSuperclass(), header.getName());
+            for (String anInterface : header.getInterfaces()) put(sink, anInterface, header.getName());
+            return true;
         }
     },
 
-    /** scan type annotations */
+    /** scan type annotations, both runtime visible and invisible
+     * <p>annotation type names are read directly from the class file annotations attributes, without creating annotation objects.
+     * <p><i>note that {@link Inherited} is always accepted, regardless of {@link #filterResultsBy(Predicate)},
+     * so that inherited annotation types can be queried</i>
+     * */
     TypesAnnotated {
         @Override
         public boolean acceptResult(String annotation) {
-            return super.acceptResult(annotation) || annotation.equals(Inherited.class.getName());
+            return super.acceptResult(annotation) || Inherited.class.getName().equals(annotation);
         }
 
         @Override
-        public void scan(ClassFile classFile, List<Map.Entry<String, String>> entries) {
-            //entries.addAll(entries(getAnnotations(classFile::getAttribute), classFile.getName()));
+        public boolean scan(ClassHeader header, EntrySink sink) {
+            for (String annotation : header.getAnnotations()) put(sink, annotation, header.getName());
+            return true;
         }
     };
 
-    private Predicate<String> resultFilter = s -> true; //accept all by default
+    private Predicate<String> resultFilter; //accept all by default (if null)
 
     @Override
     public String index() {
@@ -66,16 +70,34 @@ public enum Scanners implements Scanner, QueryBuilder, NameHelper {
         return this;
     }
 
+    /** the result filter set by {@link #filterResultsBy(Predicate)}, or null if accepting all results */
+    public Predicate<String> getResultFilter() {
+        return resultFilter;
+    }
+
     @Override
-    public final List<Map.Entry<String, String>> scan(ClassFile classFile) {
+    public final List<Map.Entry<String, String>> scan(ClassHeader header) {
         List<Map.Entry<String, String>> entries = new ArrayList<>();
-        scan(classFile, entries);
-        return entries.stream().filter(a -> acceptResult(a.getKey())).collect(Collectors.toList());
+        scan(header, (key, value) -> entries.add(entry(key, value)));
+        return entries;
     }
 
-    abstract void scan(ClassFile classFile, List<Map.Entry<String, String>> entries);
+    @Override
+    public final List<Map.Entry<String, String>> scan(ClassFile classFile) {
+        return scan(ClassHeader.of(classFile));
+    }
+
+    /** scan the given class {@code header} and puts key/values accepted by {@link #acceptResult(String)} into {@code sink} */
+    @Override
+    public abstract boolean scan(ClassHeader header, EntrySink sink);
+
+    /** puts {@code key}/{@code value} into {@code sink} if the key is accepted, see {@link #filterResultsBy(Predicate)} */
+    void put(EntrySink sink, String key, String value) {
+        if (acceptResult(key)) sink.put(key, value);
+    }
 
-    protected boolean acceptResult(String fqn) {
-        return fqn != null && resultFilter.test(fqn);
+    /** true if the given key {@code fqn} should be indexed, see {@link #filterResultsBy(Predicate)} */
+    public boolean acceptResult(String fqn) {
+        return fqn != null && (resultFilter == null || resultFilter.test(fqn));
     }
 }
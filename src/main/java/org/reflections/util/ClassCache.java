@@ -0,0 +1,139 @@
+package org.reflections.util;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * per class loader memoized type name resolution, used by {@link NameHelper#forClass(String, ClassLoader...)}.
+ * <p>caches both resolved classes and misses (negative entries), so that unresolvable names do not throw again per lookup.
+ * class loaders are weakly referenced keys, and resolved classes are weakly referenced values, so that class loaders are not pinned.
+ * <p>lookups of cached names do not lock, the per class loader map is created once, and is itself concurrent.
+ * <p>negative entries expire after {@link #MISS_EXPIRY_MILLIS}, so that a type defined later in the same class loader,
+ * for example generated at runtime, is resolved eventually, or immediately after {@link #clear()}.
+ * negative entries are bounded by {@link #MAX_MISSES} per class loader, and are all dropped once exceeded
+ */
+public final class ClassCache {
+    static final long MISS_EXPIRY_MILLIS = 60_000;
+    static final int MAX_MISSES = 10_000;
+    private static final Map<Object, Classes> cache = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<ClassLoader> collected = new ReferenceQueue<>();
+
+    private ClassCache() {}
+
+    /** resolves {@code typeName} using {@code classLoader}, or returns null if not found */
+    @SuppressWarnings("unchecked")
+    static Class<?> forClass(String typeName, ClassLoader classLoader) {
+        if (classLoader == null) return load(typeName, null);
+        Classes classes = cache.get(new LoaderLookup(classLoader));
+        if (classes == null) {
+            for (Object ref; (ref = collected.poll()) != null; ) cache.remove(ref);
+            classes = cache.computeIfAbsent(new LoaderRef(classLoader, collected), loader -> new Classes());
+        }
+        Object cached = classes.get(typeName);
+        if (cached instanceof Missing && !((Missing) cached).isExpired()) return null;
+        Class<?> type = cached instanceof WeakReference ? ((WeakReference<Class<?>>) cached).get() : null;
+        if (type == null) {
+            type = load(typeName, classLoader);
+            if (type != null) classes.put(typeName, new WeakReference<>(type));
+            else classes.putMissing(typeName);
+        }
+        return type;
+    }
+
+    /** removes all cached entries */
+    public static void clear() {
+        cache.clear();
+    }
+
+    /** resolved classes and misses of a class loader, with the count of misses */
+    private static final class Classes extends ConcurrentHashMap<String, Object> {
+        private final AtomicInteger misses = new AtomicInteger();
+
+        void putMissing(String typeName) {
+            if (!(put(typeName, new Missing()) instanceof Missing) && misses.incrementAndGet() > MAX_MISSES) {
+                misses.set(0);
+                values().removeIf(value -> value instanceof Missing);
+            }
+        }
+    }
+
+    /** negative entry, expiring after {@link #MISS_EXPIRY_MILLIS} */
+    private static final class Missing {
+        private final long expires = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(MISS_EXPIRY_MILLIS);
+
+        boolean isExpired() {
+            return System.nanoTime() - expires > 0;
+        }
+    }
+
+    /** class loader cache key, weakly referencing the class loader, and equal by class loader identity */
+    private static final class LoaderRef extends WeakReference<ClassLoader> {
+        private final int hash;
+
+        LoaderRef(ClassLoader classLoader, ReferenceQueue<ClassLoader> queue) {
+            super(classLoader, queue);
+            hash = System.identityHashCode(classLoader);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            ClassLoader classLoader = get();
+            return classLoader != null && (o instanceof LoaderRef ? ((LoaderRef) o).get() == classLoader :
+                o instanceof LoaderLookup && ((LoaderLookup) o).classLoader == classLoader);
+        }
+    }
+
+    /** class loader lookup key, equal to the {@link LoaderRef} of the same class loader, without creating a reference per lookup */
+    private static final class LoaderLookup {
+        private final ClassLoader classLoader;
+
+        LoaderLookup(ClassLoader classLoader) {
+            this.classLoader = classLoader;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(classLoader);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof LoaderRef && ((LoaderRef) o).get() == classLoader;
+        }
+    }
+
+    private static Class<?> load(String typeName, ClassLoader classLoader) {
+        String type;
+        if (typeName.contains("[")) {
+            int i = typeName.indexOf("[");
+            type = typeName.substring(0, i);
+            String array = typeName.substring(i).replace("]", "");
+            if (NameHelper.primitiveNames.contains(type)) {
+                type = NameHelper.primitiveDescriptors.get(NameHelper.primitiveNames.indexOf(type));
+            } else {
+                type = "L" + type + ";";
+            }
+            type = array + type;
+        } else {
+            type = typeName;
+        }
+
+        if (type.contains("[")) {
+            try { return Class.forName(type, false, classLoader); }
+            catch (Throwable ignored) {}
+        }
+        try { return classLoader.loadClass(type); }
+        catch (Throwable ignored) {}
+        return null;
+    }
+}
@@ -2,24 +2,38 @@ package org.reflections.util;
 
 import org.reflections.Configuration;
 import org.reflections.ReflectionsException;
+import org.reflections.ScanListener;
+import org.reflections.ScanPipeline;
 import org.reflections.scanners.Scanner;
 import org.reflections.scanners.Scanners;
 
 import java.net.URL;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.Executor;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 public class ConfigurationBuilder implements Configuration {
-    public static final Set<Scanner> DEFAULT_SCANNERS = new HashSet<>(Collections.singletonList(Scanners.SubTypes));
+    public static final Set<Scanner> DEFAULT_SCANNERS = new HashSet<>(Arrays.asList(Scanners.SubTypes, Scanners.TypesAnnotated));
     public static final Predicate<String> DEFAULT_INPUTS_FILTER = t -> true;
 
     private Set<Scanner> scanners;
     private Set<URL> urls;
     private Predicate<String> inputsFilter;
     private boolean isParallel = true;
+    private Executor executor;
+    private int parallelism = 0;
+    private boolean virtualThreads = false;
+    private ScanPipeline scanPipeline;
     private ClassLoader[] classLoaders;
     private boolean expandSuperTypes = true;
+    private boolean expandSuperTypesFromBytecode = false;
+    private ScanListener scanListener;
+    private boolean compactStore = false;
+    private Path scanCache;
+    private boolean subTypesClosure = false;
+    private int queryCacheSize = 0;
 
     public ConfigurationBuilder() {
         urls = new HashSet<>();
@@ -119,6 +133,68 @@ public class ConfigurationBuilder implements Configuration {
         return isParallel;
     }
 
+    /** if true (default), urls are opened and scanned in parallel.
+     * <p>see {@link #setExecutor(Executor)}, {@link #setParallelism(int)} and {@link #setVirtualThreads(boolean)} */
+    public ConfigurationBuilder setParallel(boolean parallel) {
+        this.isParallel = parallel;
+        return this;
+    }
+
+    @Override
+    /* @inherited */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /** sets the executor of parallel scan tasks, instead of the common {@link java.util.concurrent.ForkJoinPool}.
+     * <p>the executor is not shut down after scanning */
+    public ConfigurationBuilder setExecutor(Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    @Override
+    /* @inherited */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /** sets the maximum number of parallel scan workers, or 0 for the executor parallelism.
+     * <p>without {@link #setExecutor(Executor)}, a dedicated {@link java.util.concurrent.ForkJoinPool} of that parallelism is created for each scan */
+    public ConfigurationBuilder setParallelism(int parallelism) {
+        if (parallelism < 0) throw new ReflectionsException("parallelism must not be negative " + parallelism);
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    @Override
+    /* @inherited */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /** if true, parallel scan tasks run in their own virtual thread, so that scanning urls over slow or network file systems
+     * is not bounded by the number of cores. ignored if {@link #setExecutor(Executor)} is set.
+     * <p>requires java 21 or later, see {@link VirtualThreads#isSupported()} */
+    public ConfigurationBuilder setVirtualThreads(boolean virtualThreads) {
+        if (virtualThreads && !VirtualThreads.isSupported()) throw new ReflectionsException("virtual threads require java 21 or later");
+        this.virtualThreads = virtualThreads;
+        return this;
+    }
+
+    @Override
+    /* @inherited */
+    public ScanPipeline getScanPipeline() {
+        return scanPipeline;
+    }
+
+    /** sets the staged scan pipeline, so that reading files and parsing them overlap with separately tuned thread counts.
+     * <p>for example {@code setScanPipeline(ScanPipeline.of(16, 4))} for I/O bound scans, see {@link ScanPipeline} */
+    public ConfigurationBuilder setScanPipeline(ScanPipeline scanPipeline) {
+        this.scanPipeline = scanPipeline;
+        return this;
+    }
+
     @Override
     /* @inherited */
     public ClassLoader[] getClassLoaders() {
@@ -138,4 +214,83 @@ public class ConfigurationBuilder implements Configuration {
     public boolean shouldExpandSuperTypes() {
         return expandSuperTypes;
     }
+
+    @Override
+    /* @inherited */
+    public boolean shouldExpandSuperTypesFromBytecode() {
+        return expandSuperTypesFromBytecode;
+    }
+
+    /** if true, super types are expanded by reading their class file headers using {@link ClassLoader#getResource(String)},
+     * instead of loading the classes (and possibly running static initializers).
+     * <p>see {@link org.reflections.Reflections#expandSuperTypesFromBytecode(Map, Map)} */
+    public ConfigurationBuilder setExpandSuperTypesFromBytecode(boolean expandSuperTypesFromBytecode) {
+        this.expandSuperTypesFromBytecode = expandSuperTypesFromBytecode;
+        return this;
+    }
+
+    @Override
+    /* @inherited */
+    public ScanListener getScanListener() {
+        return scanListener;
+    }
+
+    /** sets the listener of scan phases, see {@link ScanListener} and {@link org.reflections.Reflections#getScanMetrics()} */
+    public ConfigurationBuilder setScanListener(ScanListener scanListener) {
+        this.scanListener = scanListener;
+        return this;
+    }
+
+    @Override
+    /* @inherited */
+    public boolean isCompactStore() {
+        return compactStore;
+    }
+
+    /** if true, the scanned store is compacted into immutable sorted int arrays, reducing its retained heap size.
+     * <p>see {@link org.reflections.Store#compact(Map)} */
+    public ConfigurationBuilder setCompactStore(boolean compactStore) {
+        this.compactStore = compactStore;
+        return this;
+    }
+
+    @Override
+    /* @inherited */
+    public Path getScanCache() {
+        return scanCache;
+    }
+
+    /** sets the directory used to cache per url scan results, keyed by each url path, size, last modified time and content hash.
+     * <p>unchanged urls are then loaded from the cache, and only modified jars or directories are rescanned */
+    public ConfigurationBuilder setScanCache(Path scanCache) {
+        this.scanCache = scanCache;
+        return this;
+    }
+
+    @Override
+    /* @inherited */
+    public boolean isSubTypesClosure() {
+        return subTypesClosure;
+    }
+
+    /** if true, the transitive closure of {@code SubTypes} is indexed once after scanning,
+     * so that transitive queries such as {@code SubTypes.of(type)} do not traverse the store.
+     * <p>see {@link org.reflections.Store#closure(Map)} */
+    public ConfigurationBuilder setSubTypesClosure(boolean subTypesClosure) {
+        this.subTypesClosure = subTypesClosure;
+        return this;
+    }
+
+    @Override
+    /* @inherited */
+    public int getQueryCacheSize() {
+        return queryCacheSize;
+    }
+
+    /** sets the maximum number of query results cached by {@link org.reflections.Reflections#get(QueryFunction)}, least recently used evicted first.
+     * <p>note that cached results are unmodifiable. see {@link QueryCache} */
+    public ConfigurationBuilder setQueryCacheSize(int queryCacheSize) {
+        this.queryCacheSize = queryCacheSize;
+        return this;
+    }
 }
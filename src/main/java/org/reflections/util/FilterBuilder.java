@@ -1,14 +1,23 @@
 package org.reflections.util;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
+/**
+ * chain of include and exclude filters
+ * <p>the chain is compiled on first test - package and literal patterns into a single prefix trie, matched in one pass,
+ * and the other patterns into their regular expressions, see {@link #test(String)} and {@link #testPath(String)}
+ */
 public class FilterBuilder implements Predicate<String> {
     private final List<Predicate<String>> chain = new ArrayList<>();
+    private volatile Compiled compiled;
 
     public FilterBuilder() {}
 
@@ -16,7 +25,7 @@ public class FilterBuilder implements Predicate<String> {
      * <i>note that the {@code value} is mapped into a prefix pattern with a trailing dot, for example {@code "a.b" == "a\\.b\\..*}
      * <p>see more in {@link #prefixPattern(String)} */
     public FilterBuilder includePackage(String value) {
-        return includePattern(prefixPattern(value));
+        return add(new FilterBuilder.IncludePackage(value));
     }
 
     /** include regular expression <pre>{@code new FilterBuilder().includePattern("java\\.lang\\..*")}</pre>
@@ -31,10 +40,50 @@ public class FilterBuilder implements Predicate<String> {
 
     public FilterBuilder add(Predicate<String> filter) {
         chain.add(filter);
+        compiled = null;
         return this;
     }
 
+    /** package prefixes with a trailing dot, such that only names starting with one of these prefixes can be accepted,
+     * or null if this filter is not restricted to {@link #includePackage(String)} prefixes.
+     * <p>used for skipping excluded sub trees when traversing urls, see {@link org.reflections.vfs.Vfs.Dir#getFiles(java.util.Collection)} */
+    public Set<String> getPackagePrefixes() {
+        if (chain.isEmpty() || !(chain.get(0) instanceof Include)) return null;
+        Set<String> prefixes = new LinkedHashSet<>();
+        for (Predicate<String> filter : chain) {
+            if (filter instanceof IncludePackage) prefixes.add(((IncludePackage) filter).prefix);
+            else if (!(filter instanceof Exclude)) return null;
+        }
+        return prefixes;
+    }
+
+    /** true if this filter consists only of include and exclude patterns, or of nested filter builders of patterns,
+     * such that it is equal to other filters of the same {@link #toString()}, unlike filters of other predicates.
+     * <p>used for keying scan results by filter, see {@link org.reflections.Configuration#getScanCache()} */
+    public boolean isPatternsOnly() {
+        return chain.stream().allMatch(filter -> filter instanceof Matcher || filter instanceof FilterBuilder && ((FilterBuilder) filter).isPatternsOnly());
+    }
+
     public boolean test(String regex) {
+        Compiled compiled = compiled();
+        return compiled != null ? compiled.test(regex, false) : testChain(regex);
+    }
+
+    /** test the relative {@code path} and its fqn form, with {@code '/'} as {@code '.'}, without creating the fqn string.
+     * <p>same as {@code test(path) || test(path.replace('/', '.'))} */
+    public boolean testPath(String path) {
+        Compiled compiled = compiled();
+        if (compiled == null) return testChain(path) || testChain(path.replace('/', '.'));
+        return compiled.test(path, false) || path.indexOf('/') != -1 && compiled.test(path, true);
+    }
+
+    private Compiled compiled() {
+        Compiled compiled = this.compiled;
+        if (compiled == null && chain.size() <= Compiled.MAX_SIZE) this.compiled = compiled = new Compiled(chain);
+        return compiled;
+    }
+
+    private boolean testChain(String regex) {
         boolean accept = chain.isEmpty() || chain.get(0) instanceof Exclude;
 
         for (Predicate<String> filter : chain) {
@@ -68,6 +117,129 @@ public class FilterBuilder implements Predicate<String> {
         return fqn.replace(".", "\\.").replace("$", "\\$") + ".*";
     }
 
+    /** compiled chain - package and literal patterns in a prefix trie, and other patterns as regular expressions */
+    private static final class Compiled {
+        static final int MAX_SIZE = 64; // trie matches are a bitmask of chain indices
+        private static final String META_CHARS = "\\^$.|?*+()[]{}";
+
+        private final Predicate<String>[] filters;
+        private final Pattern[] patterns;
+        private final boolean initial;
+        private long trieFilters;
+        private final Node trie = new Node();
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Compiled(List<Predicate<String>> chain) {
+            filters = chain.toArray(new Predicate[0]);
+            patterns = new Pattern[filters.length];
+            initial = filters.length == 0 || filters[0] instanceof Exclude;
+            for (int i = 0; i < filters.length; i++) {
+                if (!(filters[i] instanceof Matcher)) continue;
+                Pattern pattern = ((Matcher) filters[i]).pattern;
+                String regex = pattern.pattern();
+                String literal = pattern.flags() == 0 ? literal(regex, regex.length()) : null;
+                boolean prefix = false;
+                if (literal == null && pattern.flags() == 0 && regex.endsWith(".*")) {
+                    literal = literal(regex, regex.length() - 2);
+                    prefix = true;
+                }
+                if (literal != null) {
+                    trie.add(literal, 0, prefix, 1L << i);
+                    trieFilters |= 1L << i;
+                } else {
+                    patterns[i] = pattern;
+                }
+            }
+        }
+
+        /** unescaped literal of the first {@code end} chars of the {@code regex}, or null if it is not a literal */
+        private static String literal(String regex, int end) {
+            StringBuilder literal = new StringBuilder(end);
+            for (int i = 0; i < end; i++) {
+                char c = regex.charAt(i);
+                if (c == '\\') {
+                    if (++i == end || Character.isLetterOrDigit(c = regex.charAt(i))) return null;
+                } else if (META_CHARS.indexOf(c) != -1) {
+                    return null;
+                }
+                literal.append(c);
+            }
+            return literal.toString();
+        }
+
+        /** same as the chain test, with {@code '/'} as {@code '.'} if {@code dotted} */
+        boolean test(String name, boolean dotted) {
+            long matches = trieFilters != 0 ? trie.match(name, dotted) : 0;
+            boolean accept = initial;
+            for (int i = 0; i < filters.length; i++) {
+                Predicate<String> filter = filters[i];
+                if (accept && filter instanceof Include) continue;
+                if (!accept && filter instanceof Exclude) continue;
+                boolean match;
+                if ((trieFilters & 1L << i) != 0) match = (matches & 1L << i) != 0;
+                else if (patterns[i] != null) match = patterns[i].matcher(dotted ? new Dotted(name) : name).matches();
+                else {
+                    accept = filter.test(dotted ? name.replace('/', '.') : name);
+                    continue;
+                }
+                accept = filter instanceof Include == match;
+                if (!accept && filter instanceof Exclude) break;
+            }
+            return accept;
+        }
+
+        /** prefix trie node, with the chain indices of the literals ending at it */
+        private static final class Node {
+            private char[] chars = new char[0];
+            private Node[] children = new Node[0];
+            private long prefixes;
+            private long literals;
+
+            void add(String literal, int i, boolean prefix, long filter) {
+                if (i == literal.length()) {
+                    if (prefix) prefixes |= filter; else literals |= filter;
+                    return;
+                }
+                Node child = child(literal.charAt(i));
+                if (child == null) {
+                    chars = Arrays.copyOf(chars, chars.length + 1);
+                    children = Arrays.copyOf(children, children.length + 1);
+                    chars[chars.length - 1] = literal.charAt(i);
+                    children[children.length - 1] = child = new Node();
+                }
+                child.add(literal, i + 1, prefix, filter);
+            }
+
+            private Node child(char c) {
+                for (int i = 0; i < chars.length; i++) if (chars[i] == c) return children[i];
+                return null;
+            }
+
+            /** chain indices of literals and prefixes matching {@code name}, in a single pass */
+            long match(String name, boolean dotted) {
+                long matches = 0;
+                Node node = this;
+                for (int i = 0; node != null; i++) {
+                    matches |= node.prefixes;
+                    if (i == name.length()) return matches | node.literals;
+                    char c = name.charAt(i);
+                    node = node.child(dotted && c == '/' ? '.' : c);
+                }
+                return matches;
+            }
+        }
+    }
+
+    /** char sequence view of a path with {@code '/'} as {@code '.'} */
+    private static final class Dotted implements CharSequence {
+        private final String path;
+        Dotted(String path) { this.path = path; }
+        @Override public int length() { return path.length(); }
+        @Override public char charAt(int index) { char c = path.charAt(index); return c == '/' ? '.' : c; }
+        @Override public CharSequence subSequence(int start, int end) { return toString().substring(start, end); }
+        @Override public String toString() { return path.replace('/', '.'); }
+    }
+
     abstract static class Matcher implements Predicate<String> {
         final Pattern pattern;
         Matcher(String regex) { pattern = Pattern.compile(regex); }
@@ -84,6 +256,14 @@ public class FilterBuilder implements Predicate<String> {
         @Override public String toString() { return "+" + pattern; }
     }
 
+    static class IncludePackage extends Include {
+        final String prefix;
+        IncludePackage(String value) {
+            super(prefixPattern(value));
+            prefix = value.endsWith(".") ? value : value + ".";
+        }
+    }
+
     static class Exclude extends Matcher {
         Exclude(String regex) { super(regex); }
         @Override public boolean test(String regex) { return !pattern.matcher(regex).matches(); }
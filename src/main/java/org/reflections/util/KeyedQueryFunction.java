@@ -0,0 +1,46 @@
+package org.reflections.util;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Member;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+
+/** {@link QueryFunction} with a value based identity {@code key}, see {@link QueryFunction#keyed(Object, QueryFunction)} */
+class KeyedQueryFunction<C, T> implements QueryFunction<C, T> {
+	private final Object key;
+	private final QueryFunction<C, T> function;
+	private final boolean valueKey;
+
+	KeyedQueryFunction(Object key, QueryFunction<C, T> function) {
+		this.key = key;
+		this.function = function;
+		this.valueKey = isValue(key);
+	}
+
+	/** true if the key consists only of values, such that equal queries created separately have equal keys.
+	 * <p>keys of predicates, lambdas, executors or other functions are equal by reference only, see {@link QueryCache} */
+	boolean isValueKey() { return valueKey; }
+
+	private static boolean isValue(Object key) {
+		if (key == null || key instanceof String || key instanceof Number || key instanceof Boolean || key instanceof Character ||
+			key instanceof Enum || key instanceof AnnotatedElement || key instanceof Member || key instanceof ClassLoader) return true;
+		if (key instanceof KeyedQueryFunction) return ((KeyedQueryFunction<?, ?>) key).valueKey;
+		if (key instanceof Collection) return ((Collection<?>) key).stream().allMatch(KeyedQueryFunction::isValue);
+		return false;
+	}
+
+	@Override
+	public Set<T> apply(C ctx) { return function.apply(ctx); }
+
+	@Override
+	public boolean equals(Object o) {
+		return this == o || o instanceof KeyedQueryFunction && Objects.equals(key, ((KeyedQueryFunction<?, ?>) o).key);
+	}
+
+	@Override
+	public int hashCode() { return Objects.hashCode(key); }
+
+	@Override
+	public String toString() { return String.valueOf(key); }
+}
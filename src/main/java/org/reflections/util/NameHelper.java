@@ -7,12 +7,18 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Member;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -70,33 +76,15 @@ public interface NameHelper {
 
 	/** tries to resolve a java type name to a Class
 	 * <p>if optional {@link ClassLoader}s are not specified, then both {@link org.reflections.util.ClasspathHelper#contextClassLoader()} and {@link org.reflections.util.ClasspathHelper#staticClassLoader()} are used
+	 * <p>resolution is memoized per class loader, including types not found, see {@link ClassCache}
 	 * */
 	default Class<?> forClass(String typeName, ClassLoader... loaders) {
 		if (primitiveNames.contains(typeName)) {
 			return primitiveTypes.get(primitiveNames.indexOf(typeName));
 		} else {
-			String type;
-			if (typeName.contains("[")) {
-				int i = typeName.indexOf("[");
-				type = typeName.substring(0, i);
-				String array = typeName.substring(i).replace("]", "");
-				if (primitiveNames.contains(type)) {
-					type = primitiveDescriptors.get(primitiveNames.indexOf(type));
-				} else {
-					type = "L" + type + ";";
-				}
-				type = array + type;
-			} else {
-				type = typeName;
-			}
-
 			for (ClassLoader classLoader : ClasspathHelper.classLoaders(loaders)) {
-				if (type.contains("[")) {
-					try { return Class.forName(type, false, classLoader); }
-					catch (Throwable ignored) {}
-				}
-				try { return classLoader.loadClass(type); }
-				catch (Throwable ignored) {}
+				Class<?> type = ClassCache.forClass(typeName, classLoader);
+				if (type != null) return type;
 			}
 			return null;
 		}
@@ -160,4 +148,52 @@ public interface NameHelper {
 	default <T> Collection<T> forNames(Collection<String> names, Class<T> resultType, ClassLoader... loaders) {
 		return names.stream().map(name -> forName(name, resultType, loaders)).filter(Objects::nonNull).collect(Collectors.toCollection(LinkedHashSet::new));
 	}
+
+	/** resolves {@code names} like {@link #forNames(Collection, Class, ClassLoader...)}, in batches submitted to the given {@code executor},
+	 * or in the calling thread if null. exceptions thrown while resolving are rethrown as is.
+	 * <p>result order is the same as {@code names} order. names that could not be resolved are passed in order to {@code unresolved}, if not null
+	 * <p>names are split into batches by the executor parallelism, of a {@link ForkJoinPool}, or else the available processors */
+	default <T> Collection<T> forNames(Collection<String> names, Class<T> resultType, Executor executor, Consumer<String> unresolved, ClassLoader... loaders) {
+		return forNames(names, resultType, executor, 0, unresolved, loaders);
+	}
+
+	/** resolves {@code names} like {@link #forNames(Collection, Class, Executor, Consumer, ClassLoader...)},
+	 * in {@code parallelism * 4} batches, or in a single batch if {@code parallelism} is 1. a {@code parallelism} of 0 means the executor parallelism */
+	default <T> Collection<T> forNames(Collection<String> names, Class<T> resultType, Executor executor, int parallelism, Consumer<String> unresolved, ClassLoader... loaders) {
+		if (executor == null) {
+			Collection<T> result = new LinkedHashSet<>();
+			for (String name : names) {
+				T t = forName(name, resultType, loaders);
+				if (t != null) result.add(t);
+				else if (unresolved != null) unresolved.accept(name);
+			}
+			return result;
+		}
+		List<String> list = new ArrayList<>(names);
+		List<T> resolved = new ArrayList<>(Collections.nCopies(list.size(), null)); // set by index only, visible after join
+		if (parallelism <= 0) parallelism = executor instanceof ForkJoinPool ? ((ForkJoinPool) executor).getParallelism() : Runtime.getRuntime().availableProcessors();
+		int batches = parallelism > 1 ? parallelism * 4 : 1;
+		int batch = Math.max(1, (list.size() + batches - 1) / batches);
+		List<CompletableFuture<Void>> futures = new ArrayList<>();
+		for (int from = 0; from < list.size(); from += batch) {
+			int start = from, end = Math.min(from + batch, list.size());
+			futures.add(CompletableFuture.runAsync(() -> {
+				for (int i = start; i < end; i++) resolved.set(i, forName(list.get(i), resultType, loaders));
+			}, executor));
+		}
+		try {
+			CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+			if (e.getCause() instanceof Error) throw (Error) e.getCause();
+			throw new ReflectionsException("could not resolve names", e.getCause());
+		}
+
+		Collection<T> result = new LinkedHashSet<>();
+		for (int i = 0; i < resolved.size(); i++) {
+			if (resolved.get(i) != null) result.add(resolved.get(i));
+			else if (unresolved != null) unresolved.accept(list.get(i));
+		}
+		return result;
+	}
 }
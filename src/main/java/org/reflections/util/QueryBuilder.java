@@ -3,9 +3,13 @@ package org.reflections.util;
 import org.reflections.Store;
 
 import java.lang.reflect.AnnotatedElement;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Function;
 
@@ -18,12 +22,23 @@ public interface QueryBuilder extends NameHelper {
 	 * <p>safely returns an empty {@code Set<String>} if {@code index/key} not found
 	 * <p>this is the only function accessing the {@link Store} multimap */
 	default QueryFunction<Store, String> get(String key) {
-		return store -> new LinkedHashSet<>(store.getOrDefault(index(), Collections.emptyMap()).getOrDefault(key, Collections.emptySet()));
+		return QueryFunction.keyed(Arrays.asList(index(), "get", key),
+			store -> new LinkedHashSet<>(store.getOrDefault(index(), Collections.emptyMap()).getOrDefault(key, Collections.emptySet())));
 	}
 
 
-	/** transitive values indexed for {@code keys} String collection, not including {@code keys} */
-	default QueryFunction<Store, String> getAll(Collection<String> keys) { return QueryFunction.set(keys).getAll(this::get); }
+	/** transitive values indexed for {@code keys} String collection, not including {@code keys}
+	 * <p>reads the transitive closure index if exists in store, see {@link Store#closure(java.util.Map)} */
+	default QueryFunction<Store, String> getAll(Collection<String> keys) {
+		List<String> keysCopy = Collections.unmodifiableList(new ArrayList<>(keys)); // key must not change with the given keys
+		return QueryFunction.keyed(Arrays.asList(index(), "getAll", keysCopy), store -> {
+			Map<String, Set<String>> closure = store.get(Store.closureIndex(index()));
+			if (closure == null) return QueryFunction.set(keysCopy).getAll(this::get).apply(store);
+			Set<String> result = new LinkedHashSet<>();
+			for (String key : keysCopy) result.addAll(closure.getOrDefault(key, Collections.emptySet()));
+			return result;
+		});
+	}
 
 	/** transitive values indexed for {@code AnnotatedElement} varargs, not including */
 	default QueryFunction<Store, String> of(AnnotatedElement... elements) { return getAll(toNames(elements)); }
@@ -0,0 +1,84 @@
+package org.reflections.util;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * size bounded least recently used cache of query results, keyed by {@link QueryFunction} identity.
+ * <p>query functions created by {@link QueryBuilder} and {@link QueryFunction} combinators are equal by value,
+ * see {@link QueryFunction#keyed(Object, QueryFunction)}, and only these are cached. other functions (lambdas),
+ * and combinators of predicates or executors such as {@link QueryFunction#filter(java.util.function.Predicate)}, are equal by reference,
+ * and would rarely be hit, therefore are computed without caching.
+ * <p>cached results are unmodifiable, and are shared between callers
+ */
+public class QueryCache {
+    private final int maxSize;
+    private final Map<QueryFunction<?, ?>, Set<?>> cache;
+    private final AtomicLong hits = new AtomicLong(), misses = new AtomicLong(), evictions = new AtomicLong();
+
+    public QueryCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.cache = new LinkedHashMap<QueryFunction<?, ?>, Set<?>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<QueryFunction<?, ?>, Set<?>> eldest) {
+                boolean evict = size() > QueryCache.this.maxSize;
+                if (evict) evictions.incrementAndGet();
+                return evict;
+            }
+        };
+    }
+
+    /** returns the cached result of {@code query}, or computes, caches and returns an unmodifiable copy of {@code result}.
+     * <p>the result of a query which is not keyed by value is computed and returned as is, see {@link #isCacheable(QueryFunction)} */
+    @SuppressWarnings("unchecked")
+    public <T> Set<T> get(QueryFunction<?, T> query, Supplier<Set<T>> result) {
+        if (!isCacheable(query)) return result.get();
+        synchronized (cache) {
+            Set<T> cached = (Set<T>) cache.get(query);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+        }
+        misses.incrementAndGet();
+        Set<T> computed = Collections.unmodifiableSet(new LinkedHashSet<>(result.get()));
+        synchronized (cache) {
+            cache.put(query, computed);
+        }
+        return computed;
+    }
+
+    /** true if the {@code query} is keyed by value, see {@link QueryFunction#keyed(Object, QueryFunction)} */
+    public static boolean isCacheable(QueryFunction<?, ?> query) {
+        return query instanceof KeyedQueryFunction && ((KeyedQueryFunction<?, ?>) query).isValueKey();
+    }
+
+    /** removes all cached results */
+    public void invalidate() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    public long hitCount() { return hits.get(); }
+
+    public long missCount() { return misses.get(); }
+
+    public long evictionCount() { return evictions.get(); }
+
+    @Override
+    public String toString() {
+        return "QueryCache{size=" + size() + ", maxSize=" + maxSize + ", hits=" + hits + ", misses=" + misses + ", evictions=" + evictions + "}";
+    }
+}
@@ -4,10 +4,14 @@ import org.reflections.Store;
 
 import java.lang.reflect.AnnotatedElement;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -17,11 +21,21 @@ public interface QueryFunction<C, T> extends Function<C, Set<T>>, NameHelper {
 	/* @inherited */
 	Set<T> apply(C ctx);
 
-	static <C, T> QueryFunction<Store, T> set(Collection<T> elements) { return ctx -> new LinkedHashSet<>(elements); }
+	static <C, T> QueryFunction<Store, T> set(Collection<T> elements) {
+		List<T> elementsCopy = Collections.unmodifiableList(new ArrayList<>(elements));
+		return keyed(Arrays.asList("set", elementsCopy), ctx -> new LinkedHashSet<>(elementsCopy));
+	}
+
+	/** query function equal to other query functions of an equal {@code key}, used as the query identity of a query result cache.
+	 * <p>only keys of values, such as strings, types, class loaders and other keyed query functions, or lists of these, are cached. see {@link org.reflections.Configuration#getQueryCacheSize()} */
+	static <C, T> QueryFunction<C, T> keyed(Object key, QueryFunction<C, T> function) {
+		return new KeyedQueryFunction<>(key, function);
+	}
 
 	/** filter by predicate <pre>{@code SubTypes.of(type).filter(withPrefix("org"))}</pre>*/
 	default QueryFunction<C, T> filter(Predicate<? super T> predicate) {
-		return ctx -> apply(ctx).stream().filter(predicate).collect(Collectors.toCollection(LinkedHashSet::new));
+		return keyed(Arrays.asList(this, "filter", predicate),
+			ctx -> apply(ctx).stream().filter(predicate).collect(Collectors.toCollection(LinkedHashSet::new)));
 	}
 
 
@@ -46,22 +60,36 @@ public interface QueryFunction<C, T> extends Function<C, Set<T>>, NameHelper {
 
 	/** concat elements from function <pre>{@code Annotations.of(method).add(Annotations.of(type))}</pre>*/
 	default <R> QueryFunction<C, T> add(QueryFunction<C, T> function) {
-		return ctx -> Stream.of(apply(ctx), function.apply(ctx))
-			.flatMap(Collection::stream).collect(Collectors.toCollection(LinkedHashSet::new));
+		return keyed(Arrays.asList(this, "add", function), ctx -> Stream.of(apply(ctx), function.apply(ctx))
+			.flatMap(Collection::stream).collect(Collectors.toCollection(LinkedHashSet::new)));
 	}
 
 	/** convert to given {@code type}, uses {@link NameHelper#forName(java.lang.String, java.lang.Class, java.lang.ClassLoader...)}
 	 * <pre>{@code Methods.of(type).as(Method.class)}</pre>*/
 	default <R> QueryFunction<C, R> as(Class<? extends R> type, ClassLoader... loaders) {
-		return ctx -> {
+		return as(type, null, null, loaders);
+	}
+
+	/** convert to given {@code type} like {@link #as(Class, ClassLoader...)}, resolving names in batches using the given {@code executor}, in parallel if the executor is,
+	 * or in the calling thread if null.
+	 * <p>result order is the same as the sequential conversion. names that could not be resolved are passed to {@code unresolved} (if not null) instead of being dropped silently
+	 * <pre>{@code SubTypes.of(type).as(Class.class, ForkJoinPool.commonPool(), missing::add)}</pre>*/
+	default <R> QueryFunction<C, R> as(Class<? extends R> type, Executor executor, Consumer<String> unresolved, ClassLoader... loaders) {
+		return as(type, executor, 0, unresolved, loaders);
+	}
+
+	/** convert to given {@code type} like {@link #as(Class, Executor, Consumer, ClassLoader...)}, resolving names in batches by the given {@code parallelism},
+	 * or by the executor parallelism if 0. see {@link NameHelper#forNames(Collection, Class, Executor, int, Consumer, ClassLoader...)} */
+	default <R> QueryFunction<C, R> as(Class<? extends R> type, Executor executor, int parallelism, Consumer<String> unresolved, ClassLoader... loaders) {
+		return keyed(Arrays.asList(this, "as", type, executor, parallelism, unresolved, loaders != null ? Arrays.asList(loaders) : null), ctx -> {
 			Set<T> apply = apply(ctx);
 			//noinspection unchecked
 			return (Set<R>) apply.stream().findFirst().map(first ->
 				type.isAssignableFrom(first.getClass()) ? apply :
-				first instanceof String ? ((Set<R>) forNames((Collection<String>) apply, type, loaders)) :
-				first instanceof AnnotatedElement ? ((Set<R>) forNames(toNames((Collection<AnnotatedElement>) apply), type, loaders)) :
+				first instanceof String ? ((Set<R>) forNames((Collection<String>) apply, type, executor, parallelism, unresolved, loaders)) :
+				first instanceof AnnotatedElement ? ((Set<R>) forNames(toNames((Collection<AnnotatedElement>) apply), type, executor, parallelism, unresolved, loaders)) :
 					apply.stream().map(t -> (R) t).collect(Collectors.toCollection(LinkedHashSet::new))
 			).orElse(apply);
-		};
+		});
 	}
 }
@@ -0,0 +1,24 @@
+package org.reflections.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * scan wide table of canonical names, so that each class name indexed in {@link org.reflections.Store}
+ * is retained as a single {@code String} instance, regardless of how many class files refer to it.
+ * <p>thread safe, and unlike {@link String#intern()} is scoped to (and collected with) a single scan
+ */
+public class SymbolTable {
+    private final ConcurrentHashMap<String, String> symbols = new ConcurrentHashMap<>();
+
+    /** returns the canonical instance equal to {@code name}, or null if {@code name} is null */
+    public String intern(String name) {
+        if (name == null) return null;
+        String symbol = symbols.putIfAbsent(name, name);
+        return symbol != null ? symbol : name;
+    }
+
+    /** number of distinct names */
+    public int size() {
+        return symbols.size();
+    }
+}
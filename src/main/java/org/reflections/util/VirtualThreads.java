@@ -0,0 +1,23 @@
+package org.reflections.util;
+
+import org.reflections.ReflectionsException;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * virtual threads support, available on java 21 or later through the multi release jar.
+ * <p>see {@link ConfigurationBuilder#setVirtualThreads(boolean)}
+ */
+public final class VirtualThreads {
+    private VirtualThreads() {}
+
+    /** true if virtual threads are supported by this runtime */
+    public static boolean isSupported() {
+        return false;
+    }
+
+    /** creates an executor which starts a new virtual thread per task, or throws if not supported */
+    public static ExecutorService newExecutor() {
+        throw new ReflectionsException("virtual threads require java 21 or later");
+    }
+}
@@ -0,0 +1,285 @@
+package org.reflections.vfs;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * an implementation of {@link org.reflections.vfs.Vfs.Dir} for a memory mapped zip {@link File}.
+ * <p>the central directory is parsed once on {@link #open(File)}, and entries are read directly from the mapped buffer,
+ * without {@link java.util.zip.ZipFile} locking and per entry native streams, see {@link MappedZipFile}.
+ * <p>nested jars and directories are opened in place with {@link #nested(String)}, STORED nested jars as a slice of the outer mapped buffer.
+ * <p>zips prepended with other data, such as executable jars with a launch script, are read at the offset of the zip data.
+ * <p>zip64, multi disk and larger than 2GB archives are not supported, in which case {@link #open(File)} throws
+ * and {@link ZipDir} should be used instead
+ * <p>the file mapping is shared by the dir and its nested dirs, and is unmapped once all of them are closed,
+ * or otherwise once garbage collected. reading files or their opened streams after their dir is closed throws {@link IOException}
+ */
+public class MappedZipDir implements Vfs.Dir {
+    private static final int EOCD_SIGNATURE = 0x06054b50;
+    private static final int CEN_SIGNATURE = 0x02014b50;
+    private static final int EOCD_SIZE = 22;
+    private static final int CEN_SIZE = 46;
+
+    private final String path;
+    private final Mapping mapping;
+    /** the zip data, or null once closed */
+    volatile ByteBuffer buffer;
+    private final String prefix;
+    private final Map<String, MappedZipFile> files;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    /** mapped zip files shared by their open nested dirs, keyed by path, size and last modified time, see {@link #openNested(File, List)} */
+    private static final Map<String, MappedZipDir> shared = new ConcurrentHashMap<>();
+
+    private MappedZipDir(String path, Mapping mapping, ByteBuffer buffer, String prefix, Map<String, MappedZipFile> files) {
+        this.path = path;
+        this.mapping = mapping;
+        this.buffer = buffer;
+        this.prefix = prefix;
+        this.files = files;
+    }
+
+    /** maps the given zip {@code file} and parses its central directory */
+    public static MappedZipDir open(File file) throws IOException {
+        MappedByteBuffer mapped = map(file);
+        return open(file.getPath(), new Mapping(mapped, null), mapped, "");
+    }
+
+    /** the nested dir at the given {@code entries} path in the zip {@code file}, such as a nested jar and a directory in it.
+     * <p>the mapped and parsed {@code file} is shared by all of its open nested dirs, so that nested urls of the same file,
+     * for example the nested jars of an executable jar, map and parse it once while any of them is open */
+    public static MappedZipDir openNested(File file, List<String> entries) throws IOException {
+        if (entries.isEmpty()) return open(file);
+        MappedZipDir root = acquire(file);
+        try {
+            MappedZipDir dir = root.nested(entries.get(0));
+            for (String entry : entries.subList(1, entries.size())) {
+                try {
+                    MappedZipDir nested = dir.nested(entry);
+                    dir.close(); // the mapping is retained by the nested dir
+                    dir = nested;
+                } catch (IOException | RuntimeException e) {
+                    dir.close();
+                    throw e;
+                }
+            }
+            return dir;
+        } finally {
+            root.mapping.release();
+        }
+    }
+
+    /** the shared root dir of the zip {@code file}, with its mapping retained for the caller, which should release it */
+    private static MappedZipDir acquire(File file) throws IOException {
+        String key = file.getAbsolutePath() + "|" + file.length() + "|" + file.lastModified();
+        while (true) {
+            MappedZipDir root = shared.get(key);
+            if (root != null) {
+                if (root.mapping.retainIfReferenced()) return root;
+                shared.remove(key, root); // unmapped, being removed by its last release
+            }
+            MappedByteBuffer mapped = map(file);
+            root = open(file.getPath(), new Mapping(mapped, key), mapped, "");
+            if (shared.putIfAbsent(key, root) == null) return root;
+            root.mapping.release(); // opened concurrently
+        }
+    }
+
+    /** the nested jar at the given {@code entry}, or the directory view of the entries under it, which should be closed separately.
+     * <p>STORED nested jars are read in place, DEFLATED nested jars are inflated into memory */
+    public MappedZipDir nested(String entry) throws IOException {
+        MappedZipFile file = files.get(entry);
+        if (file != null) {
+            ByteBuffer zip = file.toByteBuffer();
+            return open(path + "!/" + entry, mapping.retain(), zip, "");
+        }
+        String dir = entry.endsWith("/") ? entry.substring(0, entry.length() - 1) : entry, prefix = dir + "/";
+        if (files.keySet().stream().noneMatch(name -> name.startsWith(prefix))) throw new IOException("nested entry not found " + path + "!/" + entry);
+        ByteBuffer zip = buffer();
+        return open(path + "!/" + dir, mapping.retain(), zip, this.prefix + prefix);
+    }
+
+    private static MappedByteBuffer map(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) throw new IOException("zip file too large to map " + file);
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /** parses the central directory of the zip {@code buffer}, keeping the entries under {@code prefix}, relative to it.
+     * <p>the retained {@code mapping} is released if parsing fails */
+    private static MappedZipDir open(String path, Mapping mapping, ByteBuffer zip, String prefix) throws IOException {
+        try {
+            return parse(path, mapping, zip, prefix);
+        } catch (IOException | RuntimeException | Error e) {
+            mapping.release();
+            throw e;
+        }
+    }
+
+    private static MappedZipDir parse(String path, Mapping mapping, ByteBuffer zip, String prefix) throws IOException {
+        ByteBuffer buffer = zip.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+
+        int eocd = findEndOfCentralDirectory(buffer);
+        if (eocd < 0) throw new IOException("zip end of central directory not found " + path);
+        int count = buffer.getShort(eocd + 10) & 0xffff;
+        long cenSize = buffer.getInt(eocd + 12) & 0xffffffffL;
+        long cenOffset = buffer.getInt(eocd + 16) & 0xffffffffL;
+        if (count == 0xffff || cenSize == 0xffffffffL || cenOffset == 0xffffffffL) throw new IOException("zip64 is not supported " + path);
+        // offsets are relative to the start of the zip data, which may follow a prepended launch script, as in executable jars
+        long delta = eocd - cenSize - cenOffset;
+        if ((buffer.getShort(eocd + 4) & 0xffff) != 0 || delta < 0) throw new IOException("invalid zip central directory " + path);
+
+        Map<String, MappedZipFile> files = new LinkedHashMap<>(count * 4 / 3 + 1);
+        MappedZipDir dir = new MappedZipDir(path, mapping, buffer, prefix, Collections.unmodifiableMap(files));
+        int p = (int) (cenOffset + delta);
+        for (int i = 0; i < count; i++) {
+            if (buffer.getInt(p) != CEN_SIGNATURE) throw new IOException("invalid zip central directory entry " + path);
+            int flags = buffer.getShort(p + 8) & 0xffff;
+            int method = buffer.getShort(p + 10) & 0xffff;
+            long compressedSize = buffer.getInt(p + 20) & 0xffffffffL;
+            long size = buffer.getInt(p + 24) & 0xffffffffL;
+            int nameLength = buffer.getShort(p + 28) & 0xffff;
+            int extraLength = buffer.getShort(p + 30) & 0xffff;
+            int commentLength = buffer.getShort(p + 32) & 0xffff;
+            long localOffset = buffer.getInt(p + 42) & 0xffffffffL;
+            if (compressedSize == 0xffffffffL || size == 0xffffffffL || localOffset == 0xffffffffL) throw new IOException("zip64 is not supported " + path);
+
+            String name = name(buffer, p + CEN_SIZE, nameLength);
+            if (!name.endsWith("/") && name.startsWith(prefix)) {
+                String relativePath = name.substring(prefix.length());
+                files.putIfAbsent(relativePath, new MappedZipFile(dir, relativePath, flags, method, (int) (localOffset + delta), (int) compressedSize, (int) size));
+            }
+            p += CEN_SIZE + nameLength + extraLength + commentLength;
+        }
+        return dir;
+    }
+
+    /** searches backwards for the end of central directory record, which may be followed by a comment */
+    private static int findEndOfCentralDirectory(ByteBuffer buffer) {
+        int end = buffer.limit() - EOCD_SIZE;
+        for (int p = end; p >= 0 && p >= end - 0xffff; p--) {
+            if (buffer.getInt(p) == EOCD_SIGNATURE && p + EOCD_SIZE + (buffer.getShort(p + 20) & 0xffff) == buffer.limit()) return p;
+        }
+        return -1;
+    }
+
+    private static String name(ByteBuffer buffer, int p, int length) {
+        byte[] bytes = new byte[length];
+        ByteBuffer slice = buffer.duplicate();
+        ((Buffer) slice).position(p); // Buffer methods, java 9+ ByteBuffer overrides do not exist on java 8
+        slice.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** the zip data, or throws if closed */
+    ByteBuffer buffer() throws IOException {
+        ByteBuffer buffer = this.buffer;
+        if (buffer == null) throw new IOException("zip dir is closed " + path);
+        return buffer;
+    }
+
+    /** closes this dir, and unmaps the file once all dirs sharing its mapping are closed */
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            buffer = null;
+            mapping.release();
+        }
+    }
+
+    public String getPath() {
+        return path.replace("\\", "/");
+    }
+
+    public Iterable<Vfs.File> getFiles() {
+        return Collections.unmodifiableCollection(files.values());
+    }
+
+    @Override
+    public Iterable<Vfs.File> getFiles(Collection<String> prefixes) {
+        if (prefixes == null) return getFiles();
+        return () -> files.values().stream()
+                .filter(file -> Vfs.hasPrefix(file.getRelativePath(), prefixes))
+                .map(file -> (Vfs.File) file)
+                .iterator();
+    }
+
+    @Override
+    public Vfs.File getFile(String relativePath) {
+        return files.get(relativePath);
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+
+    /** the file mapping, referenced by the dirs reading it, and unmapped once released by all of them.
+     * <p>a {@link #shared} mapping is removed from it once released by all of its nested dirs */
+    private static final class Mapping {
+        private final MappedByteBuffer mapped;
+        private final String key;
+        private final AtomicInteger references = new AtomicInteger(1);
+
+        Mapping(MappedByteBuffer mapped, String key) {
+            this.mapped = mapped;
+            this.key = key;
+        }
+
+        Mapping retain() {
+            references.incrementAndGet();
+            return this;
+        }
+
+        /** retains the mapping, unless already released by all */
+        boolean retainIfReferenced() {
+            for (int count; (count = references.get()) > 0; ) {
+                if (references.compareAndSet(count, count + 1)) return true;
+            }
+            return false;
+        }
+
+        void release() {
+            if (references.decrementAndGet() == 0) {
+                if (key != null) shared.computeIfPresent(key, (k, root) -> root.mapping == this ? null : root);
+                unmap(mapped);
+            }
+        }
+    }
+
+    /** unmaps the {@code buffer} without waiting for it to be garbage collected, or leaves it to be garbage collected if not supported by the runtime */
+    private static void unmap(MappedByteBuffer buffer) {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            try {
+                Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class); // java 9+
+                Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+                theUnsafe.setAccessible(true);
+                invokeCleaner.invoke(theUnsafe.get(null), buffer);
+            } catch (NoSuchMethodException e) {
+                Method cleanerMethod = buffer.getClass().getMethod("cleaner"); // java 8
+                cleanerMethod.setAccessible(true);
+                Object cleaner = cleanerMethod.invoke(buffer);
+                if (cleaner != null) cleaner.getClass().getMethod("clean").invoke(cleaner);
+            }
+        } catch (Exception | LinkageError ignored) {}
+    }
+}
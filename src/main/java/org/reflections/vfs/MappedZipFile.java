@@ -0,0 +1,177 @@
+package org.reflections.vfs;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * an implementation of {@link org.reflections.vfs.Vfs.File} for an entry of a {@link MappedZipDir}.
+ * <p>STORED entries are read directly from the mapped buffer. DEFLATED entries are inflated into a per thread buffer,
+ * which is reused once the returned stream is closed. per thread buffers larger than {@link #MAX_RECYCLED_SIZE} are not kept,
+ * so that a few large entries do not retain their buffers per thread.
+ * <p>{@link Inflater}s are pooled, up to twice the number of processors, and others are ended once used,
+ * so that native inflater memory is not retained by short lived threads, such as pool or virtual threads
+ */
+public class MappedZipFile implements Vfs.File {
+    private static final int LOC_SIGNATURE = 0x04034b50;
+    private static final int LOC_SIZE = 30;
+    private static final int STORED = 0;
+    private static final int DEFLATED = 8;
+
+    private static final BlockingQueue<Inflater> inflaters = new ArrayBlockingQueue<>(Math.max(4, Runtime.getRuntime().availableProcessors() * 2));
+    static final int MAX_RECYCLED_SIZE = 1024 * 1024;
+    private static final ThreadLocal<byte[]> input = ThreadLocal.withInitial(() -> new byte[64 * 1024]);
+    private static final ThreadLocal<byte[]> output = new ThreadLocal<>();
+
+    private final MappedZipDir root;
+    private final String name;
+    private final int flags;
+    private final int method;
+    private final int localOffset;
+    private final int compressedSize;
+    private final int size;
+
+    MappedZipFile(MappedZipDir root, String name, int flags, int method, int localOffset, int compressedSize, int size) {
+        this.root = root;
+        this.name = name;
+        this.flags = flags;
+        this.method = method;
+        this.localOffset = localOffset;
+        this.compressedSize = compressedSize;
+        this.size = size;
+    }
+
+    public String getName() {
+        return name.substring(name.lastIndexOf("/") + 1);
+    }
+
+    public String getRelativePath() {
+        return name;
+    }
+
+    public InputStream openInputStream() throws IOException {
+        checkSupported();
+        ByteBuffer data = data();
+        return method == STORED ? new BufferInputStream(root, data) : inflate(data);
+    }
+
+    private void checkSupported() throws IOException {
+        if ((flags & 1) != 0) throw new IOException("encrypted zip entry is not supported " + this);
+        if (method != STORED && method != DEFLATED) throw new IOException("unsupported zip compression method " + method + " " + this);
+    }
+
+    /** the entry data, a slice of the mapped buffer if STORED, or otherwise inflated into a new buffer, which is not recycled */
+    ByteBuffer toByteBuffer() throws IOException {
+        checkSupported();
+        if (method == STORED) return data();
+        byte[] bytes = new byte[size];
+        inflate(data(), bytes);
+        return ByteBuffer.wrap(bytes);
+    }
+
+    /** the entry compressed data, located after the local header, whose name and extra field may differ from the central directory */
+    private ByteBuffer data() throws IOException {
+        ByteBuffer buffer = root.buffer();
+        if (buffer.getInt(localOffset) != LOC_SIGNATURE) throw new IOException("invalid zip local header " + this);
+        int start = localOffset + LOC_SIZE + (buffer.getShort(localOffset + 26) & 0xffff) + (buffer.getShort(localOffset + 28) & 0xffff);
+        ByteBuffer data = buffer.duplicate();
+        ((Buffer) data).position(start); // Buffer methods, java 9+ ByteBuffer overrides do not exist on java 8
+        data = data.slice();
+        ((Buffer) data).limit(compressedSize);
+        return data;
+    }
+
+    private InputStream inflate(ByteBuffer data) throws IOException {
+        byte[] out = output.get();
+        output.set(null);
+        if (out == null || out.length < size) out = new byte[Math.max(size, 64 * 1024)];
+        inflate(data, out);
+
+        byte[] buffer = out;
+        return new ByteArrayInputStream(buffer, 0, size) {
+            @Override
+            public void close() {
+                if (output.get() == null && buffer.length <= MAX_RECYCLED_SIZE) output.set(buffer);
+            }
+        };
+    }
+
+    /** inflates the compressed {@code data} into {@code out} */
+    private void inflate(ByteBuffer data, byte[] out) throws IOException {
+        byte[] in = input.get();
+        if (in.length < compressedSize + 1) { // nowrap inflater may need one extra byte
+            in = new byte[compressedSize + 1];
+            if (in.length <= MAX_RECYCLED_SIZE) input.set(in);
+        }
+        data.get(in, 0, compressedSize);
+        in[compressedSize] = 0;
+
+        Inflater inflater = inflaters.poll();
+        if (inflater == null) inflater = new Inflater(true);
+        try {
+            inflater.setInput(in, 0, compressedSize + 1);
+            int n = 0;
+            while (n < size && !inflater.finished()) {
+                int inflated = inflater.inflate(out, n, size - n);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                n += inflated;
+            }
+            if (n != size) throw new IOException("invalid zip entry size " + n + " expected " + size + " " + this);
+        } catch (DataFormatException e) {
+            throw new IOException("invalid zip entry data " + this, e);
+        } finally {
+            inflater.reset();
+            if (!inflaters.offer(inflater)) inflater.end();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return root.getPath() + "!" + java.io.File.separatorChar + name;
+    }
+
+    /** input stream reading a mapped buffer, while its dir is not closed */
+    private static final class BufferInputStream extends InputStream {
+        private final MappedZipDir root;
+        private final ByteBuffer buffer;
+
+        BufferInputStream(MappedZipDir root, ByteBuffer buffer) {
+            this.root = root;
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() throws IOException {
+            root.buffer(); // throws if unmapped
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            root.buffer();
+            if (len == 0) return 0;
+            if (!buffer.hasRemaining()) return -1;
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public long skip(long n) {
+            int skip = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            ((Buffer) buffer).position(buffer.position() + skip);
+            return skip;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -4,8 +4,15 @@ import org.reflections.ReflectionsException;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 
 /*
  * An implementation of {@link org.reflections.vfs.Vfs.Dir} for directory {@link java.io.File}.
@@ -37,4 +44,42 @@ public class SystemDir implements Vfs.Dir {
             }
         };
     }
+
+    /** walks only the sub directories which may contain the given package {@code prefixes} */
+    @Override
+    public Iterable<Vfs.File> getFiles(Collection<String> prefixes) {
+        if (prefixes == null) return getFiles();
+        if (file == null || !file.exists()) return Collections.emptyList();
+        return () -> {
+            Path root = file.toPath();
+            List<Vfs.File> files = new ArrayList<>();
+            try {
+                Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+                    @Override
+                    public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                        return dir.equals(root) || Vfs.mayHavePrefix(root.relativize(dir).toString(), prefixes) ?
+                            FileVisitResult.CONTINUE : FileVisitResult.SKIP_SUBTREE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFile(Path path, BasicFileAttributes attrs) {
+                        if (attrs.isRegularFile() && Vfs.hasPrefix(root.relativize(path).toString(), prefixes)) {
+                            files.add(new SystemFile(SystemDir.this, path.toFile()));
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+            } catch (IOException e) {
+                throw new ReflectionsException("could not get files for " + file, e);
+            }
+            return files.iterator();
+        };
+    }
+
+    @Override
+    public Vfs.File getFile(String relativePath) {
+        if (file == null) return null;
+        File child = new File(file, relativePath);
+        return child.isFile() ? new SystemFile(this, child) : null;
+    }
 }
@@ -4,6 +4,7 @@ import org.reflections.Reflections;
 import org.reflections.ReflectionsException;
 import org.reflections.util.ClasspathHelper;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
@@ -12,6 +13,7 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLConnection;
 import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -29,6 +31,23 @@ public abstract class Vfs {
     public interface Dir {
         String getPath();
         Iterable<File> getFiles();
+
+        /** the files whose relative path, with {@code '/'} as {@code '.'}, starts with one of the given package {@code prefixes},
+         * or all files if {@code prefixes} is null.
+         * <p>implementations should skip excluded sub trees and entries without creating their files.
+         * <p>see {@link org.reflections.util.FilterBuilder#getPackagePrefixes()} */
+        default Iterable<File> getFiles(Collection<String> prefixes) {
+            if (prefixes == null) return getFiles();
+            return () -> StreamSupport.stream(getFiles().spliterator(), false)
+                .filter(file -> hasPrefix(file.getRelativePath(), prefixes)).iterator();
+        }
+
+        /** the file at the given {@code relativePath}, or null if not found */
+        default File getFile(String relativePath) {
+            for (File file : getFiles()) if (relativePath.equals(file.getRelativePath())) return file;
+            return null;
+        }
+
         default void close() {}
     }
 
@@ -52,22 +71,24 @@ public abstract class Vfs {
 
     /** tries to create a Dir from the given url, using the given urlTypes*/
     public static Dir fromURL(final URL url, final List<UrlType> urlTypes) {
+        List<Throwable> failures = new ArrayList<>();
         for (UrlType type : urlTypes) {
-            System.out.println(type);
             try {
                 if (type.matches(url)) {
                     Dir dir = type.createDir(url);
                     if (dir != null) return dir;
                 }
             } catch (Throwable e) {
-                e.printStackTrace();
+                failures.add(e);
             }
         }
 
-        throw new ReflectionsException("could not create Vfs.Dir from url, no matching UrlType was found [" + url.toExternalForm() + "]\n" +
+        ReflectionsException exception = new ReflectionsException("could not create Vfs.Dir from url, no matching UrlType was found [" + url.toExternalForm() + "]\n" +
                 "either use fromURL(final URL url, final List<UrlType> urlTypes) or " +
                 "use the static setDefaultURLTypes(final List<UrlType> urlTypes) or addDefaultURLTypes(UrlType urlType) " +
                 "with your specialized UrlType.");
+        failures.forEach(exception::addSuppressed);
+        throw exception;
     }
 
     /**try to get {@link java.io.File} from url*/
@@ -107,6 +128,58 @@ public abstract class Vfs {
         return null;
     }
 
+    /** decodes the percent escapes of a url {@code path} as utf8 bytes, unlike {@link URLDecoder}, which also decodes {@code '+'} as a space */
+    static String decodePath(String path) {
+        if (path.indexOf('%') == -1) return path;
+        StringBuilder decoded = new StringBuilder(path.length());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        for (int i = 0; i < path.length(); ) {
+            int hex = path.charAt(i) == '%' && i + 2 < path.length() ? hexByte(path, i + 1) : -1;
+            if (hex != -1) {
+                bytes.write(hex);
+                i += 3;
+            } else {
+                if (bytes.size() != 0) {
+                    decoded.append(new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+                    bytes.reset();
+                }
+                decoded.append(path.charAt(i++));
+            }
+        }
+        if (bytes.size() != 0) decoded.append(new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+        return decoded.toString();
+    }
+
+    private static int hexByte(String path, int i) {
+        int high = Character.digit(path.charAt(i), 16), low = Character.digit(path.charAt(i + 1), 16);
+        return high != -1 && low != -1 ? high << 4 | low : -1;
+    }
+
+    /** true if the relative {@code path}, with {@code '/'} as {@code '.'}, starts with one of the package {@code prefixes} */
+    static boolean hasPrefix(String path, Collection<String> prefixes) {
+        for (String prefix : prefixes) {
+            if (path.length() >= prefix.length() && regionMatches(path, prefix, prefix.length())) return true;
+        }
+        return false;
+    }
+
+    /** true if the relative directory {@code path} may contain files starting with one of the package {@code prefixes} */
+    static boolean mayHavePrefix(String path, Collection<String> prefixes) {
+        for (String prefix : prefixes) {
+            if (path.length() >= prefix.length() ? regionMatches(path, prefix, prefix.length()) :
+                regionMatches(path, prefix, path.length()) && prefix.charAt(path.length()) == '.') return true;
+        }
+        return false;
+    }
+
+    private static boolean regionMatches(String path, String prefix, int length) {
+        for (int i = 0; i < length; i++) {
+            char c = path.charAt(i);
+            if ((c == '/' || c == '\\' ? '.' : c) != prefix.charAt(i)) return false;
+        }
+        return true;
+    }
+
     private static boolean hasJarFileInPath(URL url) {
         return url.toExternalForm().matches(".*\\.jar(!.*|$)");
     }
@@ -122,8 +195,46 @@ public abstract class Vfs {
                 return url.getProtocol().equals("file") && hasJarFileInPath(url);
             }
 
+            /** memory maps the jar, see {@link MappedZipDir}, or falls back to {@link ZipDir} if not supported by the zip or by the runtime */
             public Dir createDir(final URL url) throws Exception {
-                return new ZipDir(new JarFile(getFile(url)));
+                java.io.File file = getFile(url);
+                try {
+                    return MappedZipDir.open(file);
+                } catch (IOException | LinkageError e) {
+                    return new ZipDir(new JarFile(file));
+                }
+            }
+        },
+
+        /** nested jar or directory in a jar, such as {@code jar:file:/app.jar!/BOOT-INF/lib/lib.jar!/}
+         * or {@code jar:nested:/app.jar/!BOOT-INF/classes/!/}.
+         * <p>read in place from the memory mapped outer jar, without extracting to temporary files, see {@link MappedZipDir#openNested(java.io.File, List)}.
+         * the outer jar is mapped once while any of its nested dirs is open */
+        nestedJar {
+            public boolean matches(URL url) {
+                return ("jar".equals(url.getProtocol()) || "wsjar".equals(url.getProtocol())) &&
+                    (hasInnerJarFileInPath(url) || url.toExternalForm().startsWith("jar:nested:"));
+            }
+
+            public Dir createDir(URL url) throws Exception {
+                String spec = url.toExternalForm();
+                spec = spec.substring(spec.indexOf(':') + 1);
+                List<String> entries = new ArrayList<>();
+                java.io.File file;
+                if (spec.startsWith("nested:")) {
+                    int separator = spec.indexOf("/!");
+                    if (separator == -1) return null;
+                    file = getFile(new URL("file:" + spec.substring("nested:".length(), separator)));
+                    entries.addAll(Arrays.asList(spec.substring(separator + 2).split("!/")));
+                } else {
+                    String[] parts = spec.split("!/");
+                    file = getFile(new URL(parts[0]));
+                    entries.addAll(Arrays.asList(parts).subList(1, parts.length));
+                }
+                if (file == null) return null;
+                entries.removeIf(String::isEmpty);
+                entries.replaceAll(Vfs::decodePath);
+                return MappedZipDir.openNested(file, entries);
             }
         },
 
@@ -3,7 +3,9 @@ package org.reflections.vfs;
 import org.reflections.Reflections;
 
 import java.io.IOException;
+import java.util.Collection;
 import java.util.jar.JarFile;
+import java.util.zip.ZipEntry;
 
 /** an implementation of {@link org.reflections.vfs.Vfs.Dir} for {@link java.util.zip.ZipFile} */
 public class ZipDir implements Vfs.Dir {
@@ -24,6 +26,21 @@ public class ZipDir implements Vfs.Dir {
                 .iterator();
     }
 
+    @Override
+    public Iterable<Vfs.File> getFiles(Collection<String> prefixes) {
+        if (prefixes == null) return getFiles();
+        return () -> jarFile.stream()
+                .filter(entry -> !entry.isDirectory() && Vfs.hasPrefix(entry.getName(), prefixes))
+                .map(entry -> (Vfs.File) new ZipFile(ZipDir.this, entry))
+                .iterator();
+    }
+
+    @Override
+    public Vfs.File getFile(String relativePath) {
+        ZipEntry entry = jarFile.getEntry(relativePath);
+        return entry != null && !entry.isDirectory() ? new ZipFile(this, entry) : null;
+    }
+
     public void close() {
         try { jarFile.close(); } catch (IOException e) {
 
@@ -0,0 +1,22 @@
+package org.reflections.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * virtual threads support, java 21 version of the multi release jar.
+ * <p>see {@link ConfigurationBuilder#setVirtualThreads(boolean)}
+ */
+public final class VirtualThreads {
+    private VirtualThreads() {}
+
+    /** true if virtual threads are supported by this runtime */
+    public static boolean isSupported() {
+        return true;
+    }
+
+    /** creates an executor which starts a new virtual thread per task */
+    public static ExecutorService newExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("reflections-", 0).factory());
+    }
+}
@@ -0,0 +1,77 @@
+package org.reflections.processor;
+
+import org.junit.jupiter.api.Test;
+import org.reflections.IndexFile;
+import org.reflections.Reflections;
+import org.reflections.util.ConfigurationBuilder;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.reflections.scanners.Scanners.SubTypes;
+
+public class ReflectionsProcessorTest {
+
+    @Test
+    public void anonymousClassesAreScanned() throws IOException {
+        Path classes = compile(
+            "p/A.java", "package p; public class A { Runnable runnable = new Runnable() { public void run() {} }; }");
+        assertTrue(Files.exists(classes.resolve(IndexFile.RESOURCE)));
+
+        Reflections reflections = reflections(classes);
+        assertEquals(Collections.singleton("p.A$1"), reflections.get(SubTypes.of(Runnable.class)));
+        assertTrue(reflections.getScanMetrics().getClassesParsed() > 0);
+    }
+
+    @Test
+    public void completeIndexIsLoaded() throws IOException {
+        Path classes = compile(
+            "p/B.java", "package p; public class B implements Runnable, I { public void run() {} public static class C extends B {} }",
+            "p/I.java", "package p; public interface I {}",
+            "p/J.java", "package p; @Deprecated public interface J extends I {}",
+            "p/K.java", "package p; public @interface K {}");
+
+        Reflections reflections = reflections(classes);
+        assertEquals(0, reflections.getScanMetrics().getClassesParsed());
+        assertEquals(new java.util.HashSet<>(Arrays.asList("p.B", "p.B$C")), reflections.get(SubTypes.of(Runnable.class)));
+
+        Files.delete(classes.resolve(IndexFile.RESOURCE));
+        assertEquals(reflections(classes).getStore(), reflections.getStore());
+    }
+
+    private static Reflections reflections(Path classes) throws IOException {
+        return new Reflections(new ConfigurationBuilder().addUrls(Collections.singleton(classes.toUri().toURL())));
+    }
+
+    /** compiles the given pairs of path and source with the processor, and returns the classes directory */
+    private static Path compile(String... pathsAndSources) throws IOException {
+        Path classes = Files.createTempDirectory("classes");
+        List<JavaFileObject> sources = new ArrayList<>();
+        for (int i = 0; i < pathsAndSources.length; i += 2) {
+            String source = pathsAndSources[i + 1];
+            sources.add(new SimpleJavaFileObject(URI.create("string:///" + pathsAndSources[i]), JavaFileObject.Kind.SOURCE) {
+                @Override
+                public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                    return source;
+                }
+            });
+        }
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        JavaCompiler.CompilationTask task = compiler.getTask(null, null, null, Arrays.asList("-d", classes.toString()), null, sources);
+        task.setProcessors(Collections.singletonList(new ReflectionsProcessor()));
+        assertTrue(task.call());
+        return classes;
+    }
+}
@@ -0,0 +1,87 @@
+package org.reflections.vfs;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class VfsTest {
+
+    @Test
+    public void nestedJarUrls() throws IOException {
+        Path fat = Files.createTempFile("fat", ".jar");
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(fat))) {
+            byte[] nested = zip("x/Y.class");
+            put(out, "BOOT-INF/lib/a+b.jar", nested);
+            put(out, "BOOT-INF/lib/c d.jar", nested);
+            put(out, "BOOT-INF/classes/e+f/Z.class", new byte[0]);
+        }
+
+        assertEquals(Collections.singletonList("x/Y.class"), files(nested(fat, "BOOT-INF/lib/a+b.jar!/")));
+        assertEquals(Collections.singletonList("x/Y.class"), files(nested(fat, "BOOT-INF/lib/c%20d.jar!/")));
+        assertEquals(Collections.singletonList("e+f/Z.class"), files(nested(fat, "BOOT-INF/classes/!/")));
+        assertEquals(Collections.singletonList("x/Y.class"), files(new URL("jar:" + fat.toUri() + "!/BOOT-INF/lib/a+b.jar!/")));
+        Files.delete(fat);
+    }
+
+    @Test
+    public void decodePath() {
+        assertEquals("a+b c\u00e9%", Vfs.decodePath("a+b%20c%C3%A9%"));
+        assertEquals("%zz", Vfs.decodePath("%zz"));
+    }
+
+    /** spring boot nested jar url, such as {@code jar:nested:/app.jar/!BOOT-INF/classes/!/}, whose protocol handler is not installed */
+    private static URL nested(Path fat, String entries) throws IOException {
+        return new URL("jar", "", -1, "nested:" + fat.toAbsolutePath() + "/!" + entries, new URLStreamHandler() {
+            @Override
+            protected URLConnection openConnection(URL url) throws IOException {
+                throw new IOException("not supported " + url);
+            }
+        });
+    }
+
+    private static List<String> files(URL url) {
+        Vfs.Dir dir = Vfs.fromURL(url);
+        try {
+            List<String> files = new ArrayList<>();
+            for (Vfs.File file : dir.getFiles()) files.add(file.getRelativePath());
+            return files;
+        } finally {
+            dir.close();
+        }
+    }
+
+    private static byte[] zip(String... entries) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(bytes)) {
+            for (String entry : entries) put(out, entry, new byte[0]);
+        }
+        return bytes.toByteArray();
+    }
+
+    /** puts a STORED entry, so that nested jars are read in place */
+    private static void put(ZipOutputStream out, String name, byte[] data) throws IOException {
+        ZipEntry entry = new ZipEntry(name);
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(data.length);
+        entry.setCrc(crc.getValue());
+        out.putNextEntry(entry);
+        out.write(data);
+        out.closeEntry();
+    }
+}